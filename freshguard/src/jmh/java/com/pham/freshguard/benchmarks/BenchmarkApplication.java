@@ -0,0 +1,58 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.FreshguardApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Boots the application against a private in-memory H2 database so benchmarks that go
+ * through services and repositories do not need a running PostgreSQL. Set
+ * {@code BENCHMARK_DATASOURCE_URL} (and {@code BENCHMARK_DATASOURCE_USERNAME} and
+ * {@code BENCHMARK_DATASOURCE_PASSWORD}) to run them against PostgreSQL instead; the
+ * environment reaches the forked benchmark JVMs, system properties do not. Properties are
+ * passed as command-line arguments so they take precedence over application.properties.
+ */
+final class BenchmarkApplication {
+    private static final List<String> H2_PROPERTIES = List.of(
+            "spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "spring.jpa.hibernate.ddl-auto=create-drop");
+    private static final List<String> PROPERTIES = List.of(
+            "server.port=0",
+            "spring.jpa.show-sql=false",
+            "spring.main.banner-mode=off",
+            "logging.level.root=WARN");
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String... extraProperties) {
+        List<String> args = new ArrayList<>();
+        Optional.ofNullable(System.getenv("BENCHMARK_DATASOURCE_URL"))
+                .map(BenchmarkApplication::postgresProperties)
+                .orElse(H2_PROPERTIES)
+                .forEach(property -> args.add("--" + property));
+        PROPERTIES.forEach(property -> args.add("--" + property));
+        Arrays.stream(extraProperties).forEach(property -> args.add("--" + property));
+        return SpringApplication.run(FreshguardApplication.class, args.toArray(String[]::new));
+    }
+
+    // The schema is updated like the application's, never dropped, since the database may be shared.
+    private static List<String> postgresProperties(String url) {
+        String batchedUrl = url.contains("reWriteBatchedInserts")
+                ? url
+                : url + (url.contains("?") ? "&" : "?") + "reWriteBatchedInserts=true";
+        return List.of(
+                "spring.datasource.url=" + batchedUrl,
+                "spring.datasource.username=" + Optional.ofNullable(System.getenv("BENCHMARK_DATASOURCE_USERNAME")).orElse("postgres"),
+                "spring.datasource.password=" + Optional.ofNullable(System.getenv("BENCHMARK_DATASOURCE_PASSWORD")).orElse(""),
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                "spring.jpa.hibernate.ddl-auto=update");
+    }
+}
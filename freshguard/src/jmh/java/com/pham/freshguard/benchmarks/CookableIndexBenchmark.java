@@ -0,0 +1,77 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.index.CookableIndex;
+import com.pham.freshguard.index.CookableMatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranking cost of {@code GET /api/recipes/cookable} over a large catalogue: {@code recipes}
+ * recipes of 5-15 ingredients drawn from {@code items} pantry items, about a third of which
+ * are out of stock or expired. Also measures the incremental update applied when an item
+ * changes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CookableIndexBenchmark {
+    private static final LocalDate TODAY = LocalDate.of(2025, 7, 16);
+
+    @Param({"100000"})
+    private int recipes;
+
+    @Param({"10000"})
+    private int items;
+
+    private final CookableIndex index = new CookableIndex();
+    private final SplittableRandom random = new SplittableRandom(42);
+
+    @Setup
+    public void setUp() {
+        for (long itemId = 1; itemId <= items; itemId++) {
+            putRandomItem(itemId);
+        }
+        for (long recipeId = 1; recipeId <= recipes; recipeId++) {
+            int ingredientCount = random.nextInt(5, 16);
+            List<Long> itemIds = new ArrayList<>(ingredientCount);
+            for (int i = 0; i < ingredientCount; i++) {
+                itemIds.add(random.nextLong(1, items + 1));
+            }
+            index.putRecipe(recipeId, itemIds);
+        }
+    }
+
+    @Benchmark
+    public List<CookableMatch> rankTop20() {
+        return index.rank(TODAY, 20);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void updateItem() {
+        putRandomItem(random.nextLong(1, items + 1));
+    }
+
+    private void putRandomItem(long itemId) {
+        int quantity = random.nextInt(3) == 0 ? 0 : random.nextInt(1, 5);
+        index.putItem(itemId, quantity, TODAY.plusDays(random.nextInt(-10, 60)));
+    }
+}
@@ -0,0 +1,86 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.index.IngredientIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boolean ingredient queries against the bitmap index behind
+ * {@code GET /api/recipes/find-by-ingredients?all=&any=&none=}: {@code recipes} recipes of
+ * 5-15 ingredients drawn from {@code items} items, queried with 50-ingredient lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngredientIndexBenchmark {
+    private static final int QUERY_SIZE = 50;
+
+    @Param({"100000"})
+    private int recipes;
+
+    @Param({"10000"})
+    private int items;
+
+    private final IngredientIndex index = new IngredientIndex();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private List<Long> pair;
+    private List<Long> fifty;
+
+    @Setup
+    public void setUp() {
+        for (long recipeId = 1; recipeId <= recipes; recipeId++) {
+            int ingredientCount = random.nextInt(5, 16);
+            List<Long> itemIds = new ArrayList<>(ingredientCount);
+            for (int i = 0; i < ingredientCount; i++) {
+                itemIds.add(randomItem());
+            }
+            index.putRecipe(recipeId, itemIds);
+        }
+        pair = List.of(randomItem(), randomItem());
+        fifty = new ArrayList<>(QUERY_SIZE);
+        for (int i = 0; i < QUERY_SIZE; i++) {
+            fifty.add(randomItem());
+        }
+    }
+
+    @Benchmark
+    public long[] anyOf50() {
+        return index.find(List.of(), fifty, List.of());
+    }
+
+    @Benchmark
+    public long[] allOf50() {
+        return index.find(fifty, List.of(), List.of());
+    }
+
+    @Benchmark
+    public long[] noneOf50() {
+        return index.find(List.of(), List.of(), fifty);
+    }
+
+    @Benchmark
+    public long[] anyOf2NoneOf50() {
+        return index.find(List.of(), pair, fifty);
+    }
+
+    private long randomItem() {
+        return random.nextLong(1, items + 1);
+    }
+}
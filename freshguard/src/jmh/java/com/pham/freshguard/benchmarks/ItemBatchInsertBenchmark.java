@@ -0,0 +1,91 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.services.ItemService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingesting one delivery of {@code lines} items: one {@code save} per line, each in its
+ * own transaction as with separate {@code POST /api/items} calls, versus a single
+ * {@code saveAll} as done by {@code POST /api/items/batch}. The JDBC batch size is a
+ * parameter so the effect of statement batching can be separated from the single
+ * transaction. Against in-memory H2 round trips are nearly free, so the gap over a
+ * network connection to PostgreSQL is larger; run it there by setting
+ * {@code BENCHMARK_DATASOURCE_URL}, which also turns on pgjdbc's multi-row insert rewriting
+ * (see {@link BenchmarkApplication}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemBatchInsertBenchmark {
+    @Param({"1000"})
+    private int lines;
+
+    @Param({"1", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+        itemService = context.getBean(ItemService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearItems() {
+        jdbcTemplate.update("DELETE FROM items");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemEntity> perItemSave() {
+        List<ItemEntity> saved = new ArrayList<>(lines);
+        for (ItemEntity item : delivery()) {
+            saved.add(itemService.save(item));
+        }
+        return saved;
+    }
+
+    @Benchmark
+    public List<ItemEntity> batchSaveAll() {
+        return itemService.saveAll(delivery());
+    }
+
+    private List<ItemEntity> delivery() {
+        List<ItemEntity> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(TestDataUtil.createTestItemEntityA());
+        }
+        return items;
+    }
+}
@@ -0,0 +1,128 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.mappers.impl.ItemMapperImpl;
+import com.pham.freshguard.mappers.impl.RecipeMapperImpl;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping cost of the list endpoints: the reflective ModelMapper the mappers used to
+ * delegate to versus the hand-written implementations, plus entity -> DTO -> entity
+ * round trips as done by the create and update endpoints. Run with {@code -prof gc} to
+ * compare allocation rates (gc.alloc.rate.norm is bytes per list).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+
+    @Param({"1000"})
+    private int size;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ItemMapperImpl itemMapper = new ItemMapperImpl();
+    private final RecipeMapperImpl recipeMapper = new RecipeMapperImpl(itemMapper);
+
+    private List<ItemEntity> items;
+    private List<RecipeEntity> recipes;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ItemEntity item = TestDataUtil.createTestItemEntityA();
+            item.setId((long) i);
+            items.add(item);
+        }
+        recipes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Set<ItemEntity> ingredients = new HashSet<>();
+            for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                ingredients.add(items.get((i + j) % size));
+            }
+            RecipeEntity recipe = TestDataUtil.createTestRecipeEntityA();
+            recipe.setId((long) i);
+            recipe.setIngredients(ingredients);
+            recipes.add(recipe);
+        }
+    }
+
+    @Benchmark
+    public List<ItemDto> itemListModelMapper() {
+        List<ItemDto> result = new ArrayList<>(items.size());
+        for (ItemEntity item : items) {
+            result.add(modelMapper.map(item, ItemDto.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemDto> itemListHandWritten() {
+        List<ItemDto> result = new ArrayList<>(items.size());
+        for (ItemEntity item : items) {
+            result.add(itemMapper.mapTo(item));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RecipeDto> recipeListModelMapper() {
+        List<RecipeDto> result = new ArrayList<>(recipes.size());
+        for (RecipeEntity recipe : recipes) {
+            result.add(modelMapper.map(recipe, RecipeDto.class));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RecipeDto> recipeListHandWritten() {
+        List<RecipeDto> result = new ArrayList<>(recipes.size());
+        for (RecipeEntity recipe : recipes) {
+            result.add(recipeMapper.mapTo(recipe));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<ItemEntity> itemRoundTripHandWritten() {
+        List<ItemEntity> result = new ArrayList<>(items.size());
+        for (ItemEntity item : items) {
+            result.add(itemMapper.mapFrom(itemMapper.mapTo(item)));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<RecipeEntity> recipeRoundTripHandWritten() {
+        List<RecipeEntity> result = new ArrayList<>(recipes.size());
+        for (RecipeEntity recipe : recipes) {
+            result.add(recipeMapper.mapFrom(recipeMapper.mapTo(recipe)));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,151 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.mappers.Mapper;
+import com.pham.freshguard.mappers.impl.ItemMapperImpl;
+import com.pham.freshguard.mappers.impl.RecipeMapperImpl;
+import com.pham.freshguard.repositories.ItemRepository;
+import com.pham.freshguard.repositories.RecipeRepository;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * The unpaged {@code GET /api/items} and {@code GET /api/recipes} reads over {@code rows}
+ * rows: loading managed entities and mapping them to DTOs, as the endpoints did before,
+ * versus the projections they use now, with every field and with only the fields of a
+ * recipe card ({@code ?fields=id,name,prepTimeMinutes}). Recipes have three ingredients
+ * each. All run in a read-only transaction, as under open-session-in-view.
+ * Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadPathBenchmark {
+    private static final int INGREDIENTS_PER_RECIPE = 3;
+    // The query the recipe list endpoints used before projections.
+    private static final String RECIPES_WITH_INGREDIENTS =
+            "SELECT DISTINCT r FROM RecipeEntity r LEFT JOIN FETCH r.ingredients ORDER BY r.id";
+    private static final FieldSelection RECIPE_CARD =
+            FieldSelection.parse("id,name,prepTimeMinutes", null, FieldSelection.RECIPE_FIELDS, true);
+
+    @Param({"10000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ItemRepository itemRepository;
+    private RecipeRepository recipeRepository;
+    private EntityManager entityManager;
+    private ItemService itemService;
+    private RecipeService recipeService;
+    private Mapper<ItemEntity, ItemDto> itemMapper;
+    private Mapper<RecipeEntity, RecipeDto> recipeMapper;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start("spring.jpa.properties.hibernate.jdbc.batch_size=50");
+        itemRepository = context.getBean(ItemRepository.class);
+        recipeRepository = context.getBean(RecipeRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(
+                context.getBean(EntityManagerFactory.class));
+        itemService = context.getBean(ItemService.class);
+        recipeService = context.getBean(RecipeService.class);
+        itemMapper = context.getBean(ItemMapperImpl.class);
+        recipeMapper = context.getBean(RecipeMapperImpl.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        transactionTemplate.setReadOnly(true);
+
+        List<ItemEntity> items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            items.add(TestDataUtil.createTestItemEntityA());
+        }
+        List<Long> itemIds = itemService.saveAll(items).stream().map(ItemEntity::getId).collect(Collectors.toList());
+        List<RecipeEntity> recipes = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            recipes.add(TestDataUtil.createTestRecipeEntityA());
+        }
+        List<Long> recipeIds = StreamSupport.stream(recipeRepository.saveAll(recipes).spliterator(), false)
+                .map(RecipeEntity::getId)
+                .collect(Collectors.toList());
+        // Links go in with plain JDBC; going through the service would publish an event per recipe.
+        List<Object[]> links = new ArrayList<>(rows * INGREDIENTS_PER_RECIPE);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                links.add(new Object[]{recipeIds.get(i), itemIds.get((i + j) % rows)});
+            }
+        }
+        context.getBean(JdbcTemplate.class)
+                .batchUpdate("INSERT INTO recipe_ingredients (recipe_id, item_id) VALUES (?, ?)", links);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsViaEntities() {
+        return transactionTemplate.execute(status -> StreamSupport
+                .stream(itemRepository.findAll().spliterator(), false)
+                .map(itemMapper::mapTo)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ItemDto> itemsViaProjection() {
+        return transactionTemplate.execute(status -> itemService.findAll(FieldSelection.ALL_ITEM_FIELDS));
+    }
+
+    @Benchmark
+    public List<RecipeDto> recipesViaEntities() {
+        return transactionTemplate.execute(status -> entityManager
+                .createQuery(RECIPES_WITH_INGREDIENTS, RecipeEntity.class)
+                .getResultStream()
+                .map(recipeMapper::mapTo)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<RecipeDto> recipesViaProjection() {
+        return transactionTemplate.execute(status -> recipeService.findAll(FieldSelection.ALL_RECIPE_FIELDS));
+    }
+
+    @Benchmark
+    public List<RecipeDto> recipeCardsViaProjection() {
+        return transactionTemplate.execute(status -> recipeService.findAll(RECIPE_CARD));
+    }
+}
@@ -0,0 +1,134 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.index.RecipeSearchHit;
+import com.pham.freshguard.index.RecipeSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.util.FileSystemUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranked full-text searches behind {@code GET /api/recipes/search} over {@code recipes}
+ * generated recipes. Words are drawn from a fixed vocabulary with a Zipf-like skew, so some
+ * terms match most recipes and others only a few, and each call takes the next of
+ * {@value #QUERIES} one- to three-word queries. The index is built the way the application
+ * builds it, by a rebuild from a file-backed H2 recipes table. Sampled, so the result
+ * includes p99 and the worst case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class RecipeSearchIndexBenchmark {
+    private static final int QUERIES = 1024;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final String[] WORDS = {
+            "chicken", "beef", "pork", "salmon", "tofu", "rice", "pasta", "noodle", "potato", "tomato",
+            "onion", "garlic", "ginger", "pepper", "carrot", "spinach", "mushroom", "lemon", "lime", "basil",
+            "cilantro", "parsley", "thyme", "rosemary", "cumin", "paprika", "curry", "soy", "honey", "butter",
+            "cream", "cheese", "egg", "flour", "sugar", "salt", "oil", "vinegar", "broth", "stock",
+            "bake", "roast", "grill", "fry", "simmer", "boil", "stir", "chop", "slice", "dice",
+            "mix", "whisk", "fold", "season", "marinate", "serve", "garnish", "drain", "toss", "blend",
+            "crispy", "creamy", "spicy", "sweet", "sour", "smoky", "tender", "fresh", "quick", "easy",
+            "soup", "stew", "salad", "curry", "pie", "cake", "bread", "sauce", "taco", "burger",
+            "minutes", "oven", "pan", "pot", "bowl", "skillet", "heat", "medium", "low", "high",
+            "golden", "brown", "until", "cover", "rest", "cool", "warm", "bean", "lentil", "corn"};
+
+    @Param({"1000000"})
+    private int recipes;
+
+    @Param({"10", "50"})
+    private int limit;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final String[] queries = new String[QUERIES];
+    private double[] cumulativeWeights;
+    private Path workDir;
+    private SingleConnectionDataSource dataSource;
+    private RecipeSearchIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        cumulativeWeights = new double[WORDS.length];
+        double total = 0;
+        for (int rank = 0; rank < WORDS.length; rank++) {
+            total += 1.0 / (rank + 1);
+            cumulativeWeights[rank] = total;
+        }
+        workDir = Files.createTempDirectory("recipe-search-benchmark");
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:file:" + workDir.resolve("db") + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "", true);
+        insertRecipes(new JdbcTemplate(dataSource));
+        index = new RecipeSearchIndex(dataSource, new DataSourceTransactionManager(dataSource), workDir.resolve("index"));
+        index.rebuildIfStale();
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = words(random.nextInt(1, 4));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        index.close();
+        dataSource.destroy();
+        FileSystemUtils.deleteRecursively(workDir);
+    }
+
+    @Benchmark
+    public List<RecipeSearchHit> search() {
+        return index.search(queries[next++ & (QUERIES - 1)], limit);
+    }
+
+    private void insertRecipes(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE recipes (id BIGINT PRIMARY KEY, name VARCHAR(255), " +
+                "description TEXT, instructions TEXT, version BIGINT)");
+        for (int offset = 0; offset < recipes; offset += INSERT_BATCH_SIZE) {
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            for (long id = offset + 1; id <= Math.min(offset + INSERT_BATCH_SIZE, recipes); id++) {
+                batch.add(new Object[]{id, words(random.nextInt(2, 5)), words(random.nextInt(8, 20)),
+                        words(random.nextInt(20, 50)), 0L});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO recipes (id, name, description, instructions, version) VALUES (?, ?, ?, ?, ?)", batch);
+        }
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(randomWord());
+        }
+        return text.toString();
+    }
+
+    private String randomWord() {
+        double target = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+        int rank = Arrays.binarySearch(cumulativeWeights, target);
+        return WORDS[rank >= 0 ? rank : -rank - 1];
+    }
+}
@@ -0,0 +1,79 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code RecipeServiceImpl.setRecipeIngredients} against in-memory H2. Each invocation
+ * swaps the recipe between two ingredient lists that overlap by half, so every call
+ * both removes and adds links. The call runs in a transaction, as it does under
+ * open-session-in-view during a request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeServiceBenchmark {
+    @Param({"10", "100"})
+    private int ingredients;
+
+    private ConfigurableApplicationContext context;
+    private RecipeService recipeService;
+    private TransactionTemplate transactionTemplate;
+    private Long recipeId;
+    private List<Long> firstIngredients;
+    private List<Long> secondIngredients;
+    private boolean useFirst;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        recipeService = context.getBean(RecipeService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        ItemService itemService = context.getBean(ItemService.class);
+
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < ingredients * 3 / 2; i++) {
+            itemIds.add(itemService.save(TestDataUtil.createTestItemEntityA()).getId());
+        }
+        firstIngredients = itemIds.subList(0, ingredients);
+        secondIngredients = itemIds.subList(itemIds.size() - ingredients, itemIds.size());
+        recipeId = recipeService.save(TestDataUtil.createTestRecipeEntityA()).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RecipeEntity setRecipeIngredients() {
+        useFirst = !useFirst;
+        List<Long> itemIds = useFirst ? firstIngredients : secondIngredients;
+        return transactionTemplate.execute(status -> recipeService.setRecipeIngredients(recipeId, itemIds));
+    }
+}
@@ -0,0 +1,87 @@
+package com.pham.freshguard.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.mappers.impl.ItemMapperImpl;
+import com.pham.freshguard.mappers.impl.RecipeMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of list responses, using the same ObjectMapper setup as the
+ * MVC JSON converter. ItemDto carries two {@code @JsonFormat} LocalDate fields, RecipeDto
+ * a LocalDateTime plus the nested ingredient set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final int INGREDIENTS_PER_RECIPE = 8;
+
+    @Param({"1000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<ItemDto> items;
+    private List<RecipeDto> recipes;
+
+    @Setup
+    public void setUp() {
+        ItemMapperImpl itemMapper = new ItemMapperImpl();
+        RecipeMapperImpl recipeMapper = new RecipeMapperImpl(itemMapper);
+
+        List<ItemEntity> itemEntities = new ArrayList<>(size);
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ItemEntity item = TestDataUtil.createTestItemEntityA();
+            item.setId((long) i);
+            itemEntities.add(item);
+            items.add(itemMapper.mapTo(item));
+        }
+        recipes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Set<ItemEntity> ingredients = new HashSet<>();
+            for (int j = 0; j < INGREDIENTS_PER_RECIPE; j++) {
+                ingredients.add(itemEntities.get((i + j) % size));
+            }
+            RecipeEntity recipe = TestDataUtil.createTestRecipeEntityA();
+            recipe.setId((long) i);
+            recipe.setIngredients(ingredients);
+            recipes.add(recipeMapper.mapTo(recipe));
+        }
+    }
+
+    @Benchmark
+    public byte[] itemList() throws Exception {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] recipeList() throws Exception {
+        return objectMapper.writeValueAsBytes(recipes);
+    }
+}
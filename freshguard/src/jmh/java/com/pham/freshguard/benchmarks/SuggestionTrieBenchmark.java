@@ -0,0 +1,97 @@
+package com.pham.freshguard.benchmarks;
+
+import com.pham.freshguard.index.Suggestion;
+import com.pham.freshguard.index.SuggestionTrie;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Autocomplete lookups behind {@code GET /api/items/suggest} over a trie of {@code names}
+ * synthetic item names, built from random syllables so prefixes branch like real words.
+ * Each call takes the next of {@value #QUERIES} prefixes cut from those names: exact
+ * prefixes, and the same prefixes with one character substituted, looked up with one edit
+ * allowed as the index does for prefixes of three characters or more. Sampled, so the
+ * result includes p99 and the worst case.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SuggestionTrieBenchmark {
+    private static final int QUERIES = 1024;
+    private static final String[] SYLLABLES = {
+            "ba", "be", "bo", "ca", "ce", "co", "da", "de", "do", "fa", "fe", "fi", "ga", "go",
+            "ha", "ho", "ka", "ki", "la", "le", "li", "lo", "ma", "me", "mi", "mo", "na", "ne",
+            "no", "pa", "pe", "pi", "po", "ra", "re", "ri", "ro", "sa", "se", "si", "so", "ta",
+            "te", "ti", "to", "va", "ve", "za", "ch", "sh", "st", "tr", "gr", "pl", "br", "cr"};
+
+    @Param({"1000000"})
+    private int names;
+
+    @Param({"10", "50"})
+    private int limit;
+
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final SplittableRandom random = new SplittableRandom(42);
+    private final String[] prefixes = new String[QUERIES];
+    private final String[] typos = new String[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        String[] added = new String[names];
+        for (int i = 0; i < names; i++) {
+            added[i] = randomName();
+            trie.add(added[i]);
+        }
+        for (int i = 0; i < QUERIES; i++) {
+            String name = added[random.nextInt(names)];
+            String prefix = name.substring(0, Math.min(name.length(), random.nextInt(3, 7)));
+            char[] typo = prefix.toCharArray();
+            typo[random.nextInt(typo.length)] = (char) ('a' + random.nextInt(26));
+            prefixes[i] = prefix;
+            typos[i] = new String(typo);
+        }
+    }
+
+    @Benchmark
+    public List<Suggestion> prefix() {
+        return trie.complete(prefixes[next++ & (QUERIES - 1)], limit, 0);
+    }
+
+    @Benchmark
+    public List<Suggestion> oneEdit() {
+        return trie.complete(typos[next++ & (QUERIES - 1)], limit, 1);
+    }
+
+    // One or two words of two to four syllables; names repeat, as items of the same kind do.
+    private String randomName() {
+        StringBuilder name = new StringBuilder();
+        int words = random.nextInt(4) == 0 ? 2 : 1;
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                name.append(' ');
+            }
+            int syllables = random.nextInt(2, 5);
+            for (int s = 0; s < syllables; s++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+        }
+        return name.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.pham.freshguard.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pham.freshguard.config.WebConfig;
+import com.pham.freshguard.domain.dto.ItemDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serializing an item list in each wire format the item and recipe endpoints negotiate:
+ * JSON, JSON gzipped as the server compresses it, CBOR and Smile. The mappers get the field
+ * filters from {@link WebConfig#extendMessageConverters}, as the MVC converters' do, and the
+ * items vary like the export test's synthetic rows. The payload size of each format is
+ * printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"10000"})
+    private int size;
+
+    private final ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor().build();
+    private final ObjectMapper smileMapper = Jackson2ObjectMapperBuilder.smile().build();
+
+    private List<ItemDto> items;
+
+    @Setup
+    public void setUp() throws Exception {
+        new WebConfig(null, Duration.ZERO).extendMessageConverters(List.of(
+                new MappingJackson2HttpMessageConverter(jsonMapper),
+                new MappingJackson2CborHttpMessageConverter(cborMapper),
+                new MappingJackson2SmileHttpMessageConverter(smileMapper)));
+        LocalDate today = LocalDate.now();
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(ItemDto.builder()
+                    .id(1_000_000L + i)
+                    .name("Item " + i)
+                    .category("Category " + (i % 20))
+                    .expirationDate(today.plusDays(i % 365))
+                    .purchaseDate(today)
+                    .quantity(i % 10)
+                    .location(i % 2 == 0 ? "Fridge" : "Pantry")
+                    .build());
+        }
+        System.out.printf("%nPayload bytes for %d items: json=%d jsonGzip=%d cbor=%d smile=%d%n",
+                size, json().length, jsonGzip().length, cbor().length, smile().length);
+    }
+
+    @Benchmark
+    public byte[] json() throws Exception {
+        return jsonMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            jsonMapper.writeValue(gzip, items);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] cbor() throws Exception {
+        return cborMapper.writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] smile() throws Exception {
+        return smileMapper.writeValueAsBytes(items);
+    }
+}
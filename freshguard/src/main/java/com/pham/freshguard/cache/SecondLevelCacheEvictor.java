@@ -0,0 +1,48 @@
+package com.pham.freshguard.cache;
+
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.events.ItemsChangedEvent;
+import com.pham.freshguard.domain.events.RecipesChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+
+/**
+ * Evicts cached state for rows written with native SQL, which Hibernate does not track:
+ * recipe ingredient sets and item stock levels. Eviction happens once when the rows change,
+ * so the writing transaction reloads them, and again after commit, so an entry cached from
+ * the old rows by a concurrent reader in between does not survive.
+ */
+@Component
+public class SecondLevelCacheEvictor {
+    private static final String INGREDIENTS_ROLE = RecipeEntity.class.getName() + ".ingredients";
+
+    private final Cache cache;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+
+    public void evictIngredients(Collection<Long> recipeIds) {
+        recipeIds.forEach(recipeId -> cache.evictCollectionData(INGREDIENTS_ROLE, recipeId));
+    }
+
+    public void evictItems(Collection<Long> itemIds) {
+        itemIds.forEach(itemId -> cache.evictEntityData(ItemEntity.class, itemId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        evictIngredients(event.recipeIds());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        evictItems(event.itemIds());
+    }
+}
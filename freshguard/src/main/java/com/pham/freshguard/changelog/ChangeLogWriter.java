@@ -0,0 +1,118 @@
+package com.pham.freshguard.changelog;
+
+import com.pham.freshguard.domain.entities.ChangeLogEntity.EntityType;
+import com.pham.freshguard.domain.events.ItemsChangedEvent;
+import com.pham.freshguard.domain.events.RecipesChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Records item and recipe changes in the change log. Entries are written just before the
+ * changing transaction commits, as part of it, so a rolled-back change leaves no entry.
+ * Changes made outside a transaction are logged in a transaction of their own.
+ * <p>
+ * Sequence numbers are assigned on insert, so writers take a lock on the single
+ * {@code change_log_lock} row first and hold it until they commit. Otherwise a transaction
+ * that took a lower number but committed later would be skipped by a client that had already
+ * synced past the higher one.
+ */
+@Component
+public class ChangeLogWriter {
+    private static final String DELETE_SQL =
+            "DELETE FROM change_log WHERE entity_type = :entityType AND entity_id IN (:ids)";
+    private static final String LOCK_SQL = "SELECT id FROM change_log_lock WHERE id = 1 FOR UPDATE";
+    private static final String CREATE_LOCK_SQL =
+            "INSERT INTO change_log_lock (id) SELECT 1 WHERE NOT EXISTS (SELECT id FROM change_log_lock)";
+    private static final String INSERT_SQL = "INSERT INTO change_log (entity_type, entity_id) VALUES (?, ?)";
+    private static final String RECIPES_USING_ITEMS_SQL =
+            "SELECT DISTINCT recipe_id FROM recipe_ingredients WHERE item_id IN (:ids)";
+    private static final String BACKFILL_SQL =
+            "INSERT INTO change_log (entity_type, entity_id) " +
+            "SELECT 'ITEM', id FROM items UNION ALL SELECT 'RECIPE', id FROM recipes";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ChangeLogWriter(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    public void createLock() {
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.getJdbcTemplate().update(CREATE_LOCK_SQL));
+    }
+
+    /**
+     * Logs every existing item and recipe once when the log is empty, so a client without a
+     * token can fetch the whole dataset through the log.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long entries = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COUNT(*) FROM change_log", Long.class);
+            if (entries == 0) {
+                jdbcTemplate.getJdbcTemplate().update(BACKFILL_SQL);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        if (event.itemIds().isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            append(EntityType.ITEM, event.itemIds());
+            // Recipes embed their ingredients, so they changed too. Links of deleted items are
+            // already gone; clients drop deleted items from the recipes they hold.
+            append(EntityType.RECIPE, jdbcTemplate.queryForList(RECIPES_USING_ITEMS_SQL,
+                    new MapSqlParameterSource("ids", event.itemIds()), Long.class));
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        if (event.recipeIds().isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            lock();
+            append(EntityType.RECIPE, event.recipeIds());
+        });
+    }
+
+    private void lock() {
+        jdbcTemplate.getJdbcTemplate().queryForList(LOCK_SQL, Long.class);
+    }
+
+    private void append(EntityType entityType, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        jdbcTemplate.update(DELETE_SQL, new MapSqlParameterSource()
+                .addValue("entityType", entityType.name())
+                .addValue("ids", distinctIds));
+        List<Object[]> rows = distinctIds.stream()
+                .map(id -> new Object[] {entityType.name(), id})
+                .collect(Collectors.toList());
+        jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, rows);
+    }
+}
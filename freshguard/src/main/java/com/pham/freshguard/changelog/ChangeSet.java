@@ -0,0 +1,14 @@
+package com.pham.freshguard.changelog;
+
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+
+import java.util.List;
+
+/**
+ * Current state of the items and recipes changed after a change sequence number, and the
+ * ids of those deleted since. {@code lastSequence} is where the next request continues.
+ */
+public record ChangeSet(long lastSequence, List<ItemDto> items, List<RecipeDto> recipes,
+                        List<Long> deletedItemIds, List<Long> deletedRecipeIds, boolean hasMore) {
+}
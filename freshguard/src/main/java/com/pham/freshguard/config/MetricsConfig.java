@@ -0,0 +1,21 @@
+package com.pham.freshguard.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Times every method of the classes annotated with {@code @Timed}, the item and recipe
+ * controllers and services, tagged with class and method name. Controller timers publish
+ * histogram buckets, so p50/p95/p99 are computed with {@code histogram_quantile} and can be
+ * aggregated across instances. HTTP, connection pool and Hibernate statistics metrics come
+ * from Boot's auto-configuration, and all of them are scraped from {@code /actuator/prometheus}.
+ */
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,25 @@
+package com.pham.freshguard.config;
+
+import com.pham.freshguard.tracing.RotatingFileSpanSender;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import zipkin2.reporter.BytesMessageSender;
+
+import java.nio.file.Path;
+
+/**
+ * Sampled traces go to rotating local files in Zipkin JSON instead of a Zipkin server. Boot
+ * reports spans through this sender in the background; the share of requests traced is
+ * {@code management.tracing.sampling.probability}.
+ */
+@Configuration
+public class TracingConfig {
+    @Bean
+    public BytesMessageSender spanSender(@Value("${freshguard.tracing.file}") Path file,
+                                         @Value("${freshguard.tracing.max-file-size:10MB}") DataSize maxFileSize,
+                                         @Value("${freshguard.tracing.max-files:5}") int maxFiles) {
+        return new RotatingFileSpanSender(file, maxFileSize.toBytes(), maxFiles);
+    }
+}
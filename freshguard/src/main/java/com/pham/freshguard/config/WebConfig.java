@@ -1,13 +1,42 @@
 package com.pham.freshguard.config;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+import java.util.List;
+
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
+    public static final String ITEM_FIELDS_FILTER = "itemFields";
+    public static final String RECIPE_FIELDS_FILTER = "recipeFields";
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final Duration asyncRequestTimeout;
+
+    // @EnableWebMvc turns off Boot's MVC auto-configuration, so async support
+    // (used by streaming responses) is wired here explicitly.
+    public WebConfig(
+            @Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor,
+            @Value("${spring.mvc.async.request-timeout:10m}") Duration asyncRequestTimeout) {
+        this.taskExecutor = taskExecutor;
+        this.asyncRequestTimeout = asyncRequestTimeout;
+    }
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -15,6 +44,36 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedOrigins("http://localhost:3000")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Next-Cursor", HttpHeaders.ETAG)
                 .allowCredentials(true);
     }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(taskExecutor);
+        configurer.setDefaultTimeout(asyncRequestTimeout.toMillis());
+    }
+
+    // Responses can narrow item and recipe DTOs to the requested fields. The filters are bound
+    // only on the HTTP converters' mappers, and serialize everything unless a response sets one.
+    // Besides JSON, the default converters include CBOR and Smile when their Jackson modules are
+    // on the classpath, and clients pick one with the Accept header; all share the same filters.
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter instanceof AbstractJackson2HttpMessageConverter jacksonConverter) {
+                jacksonConverter.getObjectMapper()
+                        .addMixIn(ItemDto.class, ItemFieldsFilter.class)
+                        .addMixIn(RecipeDto.class, RecipeFieldsFilter.class)
+                        .setFilterProvider(new SimpleFilterProvider()
+                                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+            }
+        }
+    }
+
+    @JsonFilter(ITEM_FIELDS_FILTER)
+    private interface ItemFieldsFilter {}
+
+    @JsonFilter(RECIPE_FIELDS_FILTER)
+    private interface RecipeFieldsFilter {}
 }
@@ -0,0 +1,37 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.domain.dto.CacheStatisticsDto;
+import com.pham.freshguard.domain.dto.SlowQueryDto;
+import com.pham.freshguard.services.CacheStatisticsService;
+import com.pham.freshguard.services.SlowQueryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final CacheStatisticsService cacheStatisticsService;
+    private final SlowQueryService slowQueryService;
+
+    public AdminController(CacheStatisticsService cacheStatisticsService, SlowQueryService slowQueryService) {
+        this.cacheStatisticsService = cacheStatisticsService;
+        this.slowQueryService = slowQueryService;
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatisticsDto>> getCacheStatistics() {
+        return new ResponseEntity<>(cacheStatisticsService.findAll(), HttpStatus.OK);
+    }
+
+    @GetMapping("/slow-queries")
+    public ResponseEntity<List<SlowQueryDto>> getSlowQueries(
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (limit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(slowQueryService.findSlowest(limit), HttpStatus.OK);
+    }
+}
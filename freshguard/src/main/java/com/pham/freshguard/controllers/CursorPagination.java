@@ -0,0 +1,78 @@
+package com.pham.freshguard.controllers;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Opaque keyset cursors for list endpoints. A cursor encodes the sort key of the
+ * last row of a page; the next page seeks past it instead of using an offset.
+ */
+final class CursorPagination {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_LIMIT = 50;
+    static final int MAX_LIMIT = 500;
+
+    private static final String SEPARATOR = "|";
+
+    private CursorPagination() {}
+
+    static String encode(Object... keys) {
+        String raw = Arrays.stream(keys)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<String> decode(String cursor, int keyCount) {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        List<String> keys = Arrays.asList(raw.split("\\" + SEPARATOR, -1));
+        if (keys.size() != keyCount) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return keys;
+    }
+
+    static Long decodeId(String cursor) {
+        return cursor == null ? null : Long.valueOf(decode(cursor, 1).get(0));
+    }
+
+    static int pageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * Builds a page response from rows fetched with {@code pageSize + 1} as the limit,
+     * so the extra row tells whether a next page exists without a count query.
+     */
+    static <E, D> ResponseEntity<List<D>> page(
+            List<E> rows,
+            int pageSize,
+            Function<E, D> mapper,
+            Function<E, String> cursorOf) {
+        boolean hasMore = rows.size() > pageSize;
+        List<E> pageRows = hasMore ? rows.subList(0, pageSize) : rows;
+
+        HttpHeaders headers = new HttpHeaders();
+        if (hasMore) {
+            headers.set(NEXT_CURSOR_HEADER, cursorOf.apply(pageRows.get(pageRows.size() - 1)));
+        }
+        List<D> body = pageRows.stream()
+                .map(mapper)
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
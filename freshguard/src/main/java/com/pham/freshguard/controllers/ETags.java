@@ -0,0 +1,51 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Weak entity tags derived from entity versions. A recipe's tag also covers the ids and
+ * versions of its ingredients, since their fields are part of the recipe representation.
+ * A version identifies a state rather than exact bytes, so If-Match compares tags weakly too.
+ */
+final class ETags {
+    private static final String WEAK_PREFIX = "W/";
+
+    private ETags() {}
+
+    static String of(ItemEntity item) {
+        return weak(String.valueOf(item.getVersion()));
+    }
+
+    static String of(RecipeEntity recipe) {
+        long ingredients = recipe.getIngredients() == null ? 0 : recipe.getIngredients().stream()
+                .sorted(Comparator.comparing(ItemEntity::getId))
+                .mapToLong(item -> 31 * item.getId() + item.getVersion())
+                .reduce(17, (hash, value) -> 31 * hash + value);
+        return weak(recipe.getVersion() + "-" + Long.toHexString(ingredients));
+    }
+
+    /**
+     * Returns whether an If-Match or If-None-Match header lists {@code etag} or is {@code *}.
+     */
+    static boolean matches(String header, String etag) {
+        if (header == null) {
+            return false;
+        }
+        String opaqueTag = opaque(etag);
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .anyMatch(tag -> tag.equals("*") || opaque(tag).equals(opaqueTag));
+    }
+
+    private static String weak(String value) {
+        return WEAK_PREFIX + "\"" + value + "\"";
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag;
+    }
+}
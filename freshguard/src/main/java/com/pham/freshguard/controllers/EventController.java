@@ -0,0 +1,64 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.notifications.ChangeNotification;
+import com.pham.freshguard.notifications.ChangeStream;
+import com.pham.freshguard.notifications.NotificationSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/events")
+public class EventController {
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+    private final ChangeStream changeStream;
+    private final long timeoutMillis;
+
+    public EventController(ChangeStream changeStream,
+                           @Value("${freshguard.events.timeout:0}") Duration timeout) {
+        this.changeStream = changeStream;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * Streams item and recipe changes as server-sent events named after the change type, with
+     * the changed ids as data. Browsers reconnect with Last-Event-ID and resume where they left
+     * off; a {@code reset} event means they were away too long and should resync. Streams do
+     * not time out unless {@code freshguard.events.timeout} is set, and idle ones get a
+     * heartbeat comment so proxies keep them open.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = LAST_EVENT_ID, required = false) String lastEventId) {
+        // A timeout of 0 means none.
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        ChangeStream.Subscriber subscriber = changeStream.subscribe(lastEventId, new NotificationSink() {
+            @Override
+            public void send(ChangeNotification notification) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .id(notification.id())
+                        .name(notification.type().eventName())
+                        .data(Map.of("ids", notification.ids()), MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(() -> changeStream.unsubscribe(subscriber));
+        emitter.onTimeout(() -> changeStream.unsubscribe(subscriber));
+        emitter.onError(error -> changeStream.unsubscribe(subscriber));
+        return emitter;
+    }
+}
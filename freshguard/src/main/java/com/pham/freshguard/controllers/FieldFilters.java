@@ -0,0 +1,36 @@
+package com.pham.freshguard.controllers;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.pham.freshguard.config.WebConfig;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Narrows the items or recipes in a response body to the fields of a {@link FieldSelection}.
+ * Other objects in the body, such as the ingredients of a recipe, are serialized in full.
+ */
+final class FieldFilters {
+    private FieldFilters() {}
+
+    static ResponseEntity<MappingJacksonValue> items(ResponseEntity<?> response, FieldSelection fields) {
+        return filter(response, WebConfig.ITEM_FIELDS_FILTER, fields);
+    }
+
+    static ResponseEntity<MappingJacksonValue> recipes(ResponseEntity<?> response, FieldSelection fields) {
+        return filter(response, WebConfig.RECIPE_FIELDS_FILTER, fields);
+    }
+
+    private static ResponseEntity<MappingJacksonValue> filter(ResponseEntity<?> response, String filterId,
+                                                              FieldSelection fields) {
+        if (response.getBody() == null) {
+            return new ResponseEntity<>(response.getHeaders(), response.getStatusCode());
+        }
+        MappingJacksonValue body = new MappingJacksonValue(response.getBody());
+        body.setFilters(new SimpleFilterProvider()
+                .addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(fields.properties()))
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+        return new ResponseEntity<>(body, response.getHeaders(), response.getStatusCode());
+    }
+}
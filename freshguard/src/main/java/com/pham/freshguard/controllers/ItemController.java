@@ -1,107 +1,321 @@
 package com.pham.freshguard.controllers;
 
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
 import com.pham.freshguard.domain.dto.ItemDto;
 import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.dto.SuggestionDto;
 import com.pham.freshguard.domain.entities.ItemEntity;
-import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.projections.FieldSelection;
 import com.pham.freshguard.mappers.Mapper;
+import com.pham.freshguard.services.ExportService;
 import com.pham.freshguard.services.ItemService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.ArrayList;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.Period;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
+@Timed(value = "freshguard.controller", histogram = true)
 @RequestMapping("/api/items")
 public class ItemController {
 
     private final ItemService itemService;
     private final Mapper<ItemEntity, ItemDto> itemMapper;
-    private final Mapper<RecipeEntity, RecipeDto> recipeMapper;
-    public ItemController(ItemService itemService, Mapper<ItemEntity, ItemDto> itemMapper, Mapper<RecipeEntity, RecipeDto> recipeMapper) {
+    private final ExportService exportService;
+    public ItemController(ItemService itemService, Mapper<ItemEntity, ItemDto> itemMapper, ExportService exportService) {
         this.itemService = itemService;
         this.itemMapper = itemMapper;
-        this.recipeMapper = recipeMapper;
+        this.exportService = exportService;
     }
 
     @PostMapping()
     public ResponseEntity<ItemDto> createItem (@RequestBody ItemDto item) {
+        // A client-supplied id would make save() merge into a row that may not exist.
+        item.setId(null);
         ItemEntity itemEntity = itemMapper.mapFrom(item);
         ItemEntity savedItemEntity =  itemService.save(itemEntity);
         return new ResponseEntity<>(itemMapper.mapTo(savedItemEntity), HttpStatus.CREATED);
     }
 
-    @GetMapping()
-    public List<ItemDto> getItems() {
-        List<ItemEntity> items = itemService.findAll();
-        return items.stream()
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> createItems(@RequestBody List<ItemDto> items) {
+        if (items.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<ItemEntity> itemEntities = items.stream()
+                .map(itemMapper::mapFrom)
+                .collect(Collectors.toList());
+        List<ItemDto> savedItems = itemService.saveAll(itemEntities).stream()
                 .map(itemMapper::mapTo)
                 .collect(Collectors.toList());
+        return new ResponseEntity<>(savedItems, HttpStatus.CREATED);
+    }
+
+    @GetMapping()
+    public ResponseEntity<MappingJacksonValue> getItems(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            FieldSelection selection = itemFields(fields);
+            if (after == null && limit == null) {
+                return FieldFilters.items(new ResponseEntity<>(itemService.findAll(selection), HttpStatus.OK), selection);
+            }
+
+            Long afterId = CursorPagination.decodeId(after);
+            int pageSize = CursorPagination.pageSize(limit);
+            List<ItemDto> items = itemService.findPage(afterId, pageSize + 1, selection);
+            return FieldFilters.items(CursorPagination.page(items, pageSize, Function.identity(),
+                    item -> CursorPagination.encode(item.getId())), selection);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<SuggestionDto>> suggestItems(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") Integer limit) {
+        if (prefix.isBlank()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<SuggestionDto> suggestions = itemService.suggest(prefix, CursorPagination.pageSize(limit)).stream()
+                    .map(suggestion -> SuggestionDto.builder()
+                            .text(suggestion.term())
+                            .count(suggestion.count())
+                            .distance(suggestion.distance())
+                            .build())
+                    .collect(Collectors.toList());
+            return new ResponseEntity<>(suggestions, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/expiring")
+    public ResponseEntity<MappingJacksonValue> getExpiringItems(
+            @RequestParam(value = "within", defaultValue = "P3D") String within,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields) {
+        try {
+            Period period = Period.parse(within);
+            if (period.isNegative()) {
+                return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+            }
+            LocalDate today = LocalDate.now();
+            return getItemsByExpirationDate(today, today.plus(period), category, location, after, limit, fields);
+        } catch (DateTimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/expired")
+    public ResponseEntity<MappingJacksonValue> getExpiredItems(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "location", required = false) String location,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields) {
+        return getItemsByExpirationDate(null, LocalDate.now().minusDays(1), category, location, after, limit, fields);
+    }
+
+    private ResponseEntity<MappingJacksonValue> getItemsByExpirationDate(LocalDate from, LocalDate until,
+            String category, String location, String after, Integer limit, String fields) {
+        try {
+            FieldSelection selection = itemFields(fields);
+            LocalDate afterDate = null;
+            Long afterId = null;
+            if (after != null) {
+                List<String> keys = CursorPagination.decode(after, 2);
+                afterDate = LocalDate.parse(keys.get(0));
+                afterId = Long.valueOf(keys.get(1));
+            }
+            int pageSize = CursorPagination.pageSize(limit);
+            List<ItemDto> items = itemService.findByExpirationDateBetween(
+                    from, until, category, location, afterDate, afterId, pageSize + 1, selection);
+            return FieldFilters.items(CursorPagination.page(items, pageSize, Function.identity(),
+                    item -> CursorPagination.encode(item.getExpirationDate(), item.getId())), selection);
+        } catch (IllegalArgumentException | DateTimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportItems() {
+        StreamingResponseBody body = out -> exportService.exportItems(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<ItemDto> getItem(@PathVariable("id") Long id) {
+    public ResponseEntity<MappingJacksonValue> getItem(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "fields", required = false) String fields) {
+        FieldSelection selection;
+        try {
+            selection = itemFields(fields);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        // A single item is read through the second-level cache, which needs the entity.
         Optional<ItemEntity> item = itemService.findOne(id);
         return item.map(itemEntity -> {
-            ItemDto itemDto = itemMapper.mapTo(itemEntity);
-            return new ResponseEntity<>(itemDto, HttpStatus.OK);
+            String etag = ETags.of(itemEntity);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<MappingJacksonValue>build();
+            }
+            return FieldFilters.items(ResponseEntity.ok().eTag(etag).body(itemMapper.mapTo(itemEntity)), selection);
         }).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
     @PutMapping(path = "/{id}")
     public ResponseEntity<ItemDto> fullUpdateItem(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody ItemDto itemDto) {
 
-        if(!itemService.isExists(id)) {
+        Optional<ItemEntity> current = itemService.findOne(id);
+        if (current.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(current.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
         itemDto.setId(id);
         ItemEntity itemEntity = itemMapper.mapFrom(itemDto);
-        ItemEntity savedItem = itemService.save(itemEntity);
-        return new ResponseEntity<>(
-                itemMapper.mapTo(savedItem),
-                HttpStatus.OK);
+        // The update only applies to the version that was checked.
+        itemEntity.setVersion(current.get().getVersion());
+        try {
+            ItemEntity savedItem = itemService.save(itemEntity);
+            return ResponseEntity.ok().eTag(ETags.of(savedItem)).body(itemMapper.mapTo(savedItem));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
     @PatchMapping(path = "/{id}")
     public ResponseEntity<ItemDto> partialUpdateItem(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody ItemDto itemDto
     ) {
-        if(!itemService.isExists(id)) {
+        Optional<ItemEntity> current = itemService.findOne(id);
+        if (current.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(current.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
         ItemEntity itemEntity = itemMapper.mapFrom(itemDto);
-        ItemEntity updatedItem = itemService.partialUpdate(id, itemEntity);
-        return new ResponseEntity<>(
-                itemMapper.mapTo(updatedItem),
-                HttpStatus.OK);
+        if (ifMatch != null) {
+            itemEntity.setVersion(current.get().getVersion());
+        }
+        try {
+            ItemEntity updatedItem = itemService.partialUpdate(id, itemEntity);
+            return ResponseEntity.ok().eTag(ETags.of(updatedItem)).body(itemMapper.mapTo(updatedItem));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
 
     @DeleteMapping(path = "/{id}")
-    public ResponseEntity deleteItem(@PathVariable("id") Long id) {
-        itemService.delete(id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public ResponseEntity deleteItem(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            itemService.delete(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+
+        // A conditional delete needs a current version to match, so a missing item fails it.
+        Optional<ItemEntity> current = itemService.findOne(id);
+        if (current.isEmpty() || !ETags.matches(ifMatch, ETags.of(current.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        try {
+            itemService.delete(id, current.get().getVersion());
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    @DeleteMapping()
+    public ResponseEntity deleteItems(
+            @RequestParam(value = "ids", required = false) List<Long> ids,
+            @RequestParam(value = "expiredBefore", required = false) String expiredBefore) {
+        if ((ids == null) == (expiredBefore == null)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            if (ids != null) {
+                itemService.deleteAllById(ids);
+            } else {
+                itemService.deleteExpiredBefore(LocalDate.parse(expiredBefore));
+            }
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (DateTimeException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @PostMapping("/{id}/consume")
+    public ResponseEntity<ConsumeResultDto> consumeItem(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "amount", defaultValue = "1") int amount) {
+        try {
+            ConsumeResultDto result = itemService.consume(id, amount);
+            return switch (result.getStatus()) {
+                case CONSUMED -> new ResponseEntity<>(result, HttpStatus.OK);
+                case INSUFFICIENT_STOCK -> new ResponseEntity<>(result, HttpStatus.CONFLICT);
+                case NOT_FOUND -> new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            };
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     @GetMapping("/{id}/recipes")
-    public ResponseEntity<List<RecipeDto>> getItemRecipes(@PathVariable Long id) {
-        Optional<ItemEntity> item = itemService.findOne(id);
-        return item.map(itemEntity -> {
-            List<RecipeEntity> recipes = new ArrayList<>(itemEntity.getRecipes());
-            List<RecipeDto> recipesDto = recipes.stream()
-                    .map(recipeMapper::mapTo)
-                    .collect(Collectors.toList());
-            return  new ResponseEntity<>(recipesDto, HttpStatus.OK);
-        }).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<MappingJacksonValue> getItemRecipes(
+            @PathVariable Long id,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(fields, expand, FieldSelection.RECIPE_FIELDS, true);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (!itemService.isExists(id)) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        List<RecipeDto> recipes = itemService.findItemRecipes(id, selection);
+        return FieldFilters.recipes(new ResponseEntity<>(recipes, HttpStatus.OK), selection);
+    }
 
+    private static FieldSelection itemFields(String fields) {
+        return FieldSelection.parse(fields, null, FieldSelection.ITEM_FIELDS, false);
     }
 }
@@ -1,90 +1,254 @@
 package com.pham.freshguard.controllers;
 
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
+import com.pham.freshguard.domain.dto.CookableRecipeDto;
+import com.pham.freshguard.domain.dto.RecipeBodyDto;
 import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.dto.RecipeSearchResultDto;
 import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.index.CookableMatch;
 import com.pham.freshguard.mappers.Mapper;
+import com.pham.freshguard.services.ExportService;
 import com.pham.freshguard.services.RecipeService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
+@Timed(value = "freshguard.controller", histogram = true)
 @RequestMapping("/api/recipes")
 public class RecipeController {
     private RecipeService recipeService;
     private Mapper<RecipeEntity, RecipeDto> recipeMapper;
+    private ExportService exportService;
 
-    public RecipeController(RecipeService recipeService, Mapper<RecipeEntity, RecipeDto> recipeMapper) {
+    public RecipeController(RecipeService recipeService, Mapper<RecipeEntity, RecipeDto> recipeMapper, ExportService exportService) {
         this.recipeService = recipeService;
         this.recipeMapper = recipeMapper;
+        this.exportService = exportService;
     }
 
     @PostMapping()
     public ResponseEntity<RecipeDto> createRecipe (@RequestBody RecipeDto recipe) {
+        // A client-supplied id would make save() merge into a row that may not exist.
+        recipe.setId(null);
         RecipeEntity recipeEntity = recipeMapper.mapFrom(recipe);
         RecipeEntity savedRecipeEntity=  recipeService.save(recipeEntity);
         return new ResponseEntity<>(recipeMapper.mapTo(savedRecipeEntity), HttpStatus.CREATED);
     }
 
     @GetMapping()
-    public List<RecipeDto> getRecipes() {
-        List<RecipeEntity> recipes = recipeService.findAll();
-        return recipes.stream()
-                .map(recipeMapper::mapTo)
-                .collect(Collectors.toList());
+    public ResponseEntity<MappingJacksonValue> getRecipes(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        try {
+            FieldSelection selection = recipeFields(fields, expand);
+            if (after == null && limit == null) {
+                return FieldFilters.recipes(
+                        new ResponseEntity<>(recipeService.findAll(selection), HttpStatus.OK), selection);
+            }
+
+            Long afterId = CursorPagination.decodeId(after);
+            int pageSize = CursorPagination.pageSize(limit);
+            List<RecipeDto> recipes = recipeService.findPage(afterId, pageSize + 1, selection);
+            return FieldFilters.recipes(CursorPagination.page(recipes, pageSize, Function.identity(),
+                    recipe -> CursorPagination.encode(recipe.getId())), selection);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/cookable")
+    public ResponseEntity<MappingJacksonValue> getCookableRecipes(
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        try {
+            FieldSelection selection = recipeFields(fields, expand);
+            List<CookableMatch> matches = recipeService.findCookable(CursorPagination.pageSize(limit));
+            Map<Long, RecipeDto> recipes = recipeService.findAllById(matches.stream()
+                            .map(CookableMatch::recipeId)
+                            .collect(Collectors.toList()), selection)
+                    .stream()
+                    .collect(Collectors.toMap(RecipeDto::getId, Function.identity()));
+            List<CookableRecipeDto> cookableRecipes = matches.stream()
+                    .filter(match -> recipes.containsKey(match.recipeId()))
+                    .map(match -> CookableRecipeDto.builder()
+                            .recipe(recipes.get(match.recipeId()))
+                            .availableIngredients(match.availableIngredients())
+                            .totalIngredients(match.totalIngredients())
+                            .matchRatio(match.matchRatio())
+                            .soonestExpiration(match.soonestExpiration())
+                            .build())
+                    .collect(Collectors.toList());
+            return FieldFilters.recipes(new ResponseEntity<>(cookableRecipes, HttpStatus.OK), selection);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<RecipeSearchResultDto>> searchRecipes(
+            @RequestParam("q") String query,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        if (query.isBlank()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<RecipeSearchResultDto> results = recipeService.search(query, CursorPagination.pageSize(limit)).stream()
+                    .map(hit -> RecipeSearchResultDto.builder()
+                            .id(hit.recipeId())
+                            .name(hit.name())
+                            .score(hit.score())
+                            .build())
+                    .collect(Collectors.toList());
+            return new ResponseEntity<>(results, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportRecipes() {
+        StreamingResponseBody body = out -> exportService.exportRecipes(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping(path = "/{id}")
-    public ResponseEntity<RecipeDto> getRecipe(@PathVariable("id") Long id) {
+    public ResponseEntity<MappingJacksonValue> getRecipe(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand) {
+        FieldSelection selection;
+        try {
+            selection = recipeFields(fields, expand);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        // A single recipe is read through the second-level cache, and its tag covers the ingredient versions.
         Optional<RecipeEntity> recipe = recipeService.findOne(id);
         return recipe.map(recipeEntity -> {
-            RecipeDto recipeDto = recipeMapper.mapTo(recipeEntity);
-            return new ResponseEntity<>(recipeDto, HttpStatus.OK);
+            String etag = ETags.of(recipeEntity);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<MappingJacksonValue>build();
+            }
+            return FieldFilters.recipes(
+                    ResponseEntity.ok().eTag(etag).body(recipeMapper.mapTo(recipeEntity)), selection);
         }).orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping(path = "/{id}/body")
+    public ResponseEntity<RecipeBodyDto> getRecipeBody(@PathVariable("id") Long id) {
+        return recipeService.findBody(id)
+                .map(ResponseEntity::ok)
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
     @PutMapping(path = "/{id}")
     public ResponseEntity<RecipeDto> fullUpdateRecipe(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody RecipeDto recipeDto) {
 
-        if(!recipeService.isExists(id)) {
+        Optional<RecipeEntity> current = recipeService.findOne(id);
+        if (current.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(current.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
         recipeDto.setId(id);
         RecipeEntity recipeEntity = recipeMapper.mapFrom(recipeDto);
-        RecipeEntity savedRecipe = recipeService.save(recipeEntity);
-        return new ResponseEntity<>(
-                recipeMapper.mapTo(savedRecipe),
-                HttpStatus.OK);
+        // The update only applies to the version that was checked.
+        recipeEntity.setVersion(current.get().getVersion());
+        try {
+            RecipeEntity savedRecipe = recipeService.save(recipeEntity);
+            return ResponseEntity.ok().eTag(ETags.of(savedRecipe)).body(recipeMapper.mapTo(savedRecipe));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
     @PatchMapping(path = "/{id}")
     public ResponseEntity<RecipeDto> partialUpdateRecipe(
             @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody RecipeDto recipeDto
     ) {
-        if(!recipeService.isExists(id)) {
+        Optional<RecipeEntity> current = recipeService.findOne(id);
+        if (current.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (ifMatch != null && !ETags.matches(ifMatch, ETags.of(current.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
 
         RecipeEntity recipeEntity = recipeMapper.mapFrom(recipeDto);
-        RecipeEntity updatedRecipe = recipeService.partialUpdate(id, recipeEntity);
-        return new ResponseEntity<>(
-                recipeMapper.mapTo(updatedRecipe),
-                HttpStatus.OK);
+        if (ifMatch != null) {
+            recipeEntity.setVersion(current.get().getVersion());
+        }
+        try {
+            RecipeEntity updatedRecipe = recipeService.partialUpdate(id, recipeEntity);
+            return ResponseEntity.ok().eTag(ETags.of(updatedRecipe)).body(recipeMapper.mapTo(updatedRecipe));
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
 
     @DeleteMapping(path = "/{id}")
-    public ResponseEntity deleteRecipe(@PathVariable("id") Long id) {
-        recipeService.delete(id);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public ResponseEntity deleteRecipe(
+            @PathVariable("id") Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            recipeService.delete(id);
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        }
+
+        // A conditional delete needs a current version to match, so a missing recipe fails it.
+        Optional<RecipeEntity> current = recipeService.findOne(id);
+        if (current.isEmpty() || !ETags.matches(ifMatch, ETags.of(current.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        try {
+            recipeService.delete(id, current.get().getVersion());
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+    }
+
+    @PostMapping("/{recipeId}/consume")
+    public ResponseEntity<List<ConsumeResultDto>> consumeRecipeIngredients(
+            @PathVariable Long recipeId,
+            @RequestParam(value = "amount", defaultValue = "1") int amount) {
+        try {
+            return new ResponseEntity<>(recipeService.consumeIngredients(recipeId, amount), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
     }
 
     @PostMapping("/{recipeId}/ingredients/{itemId}")
@@ -124,12 +288,42 @@ public class RecipeController {
     }
 
     @GetMapping("/find-by-ingredients")
-    public ResponseEntity<List<RecipeDto>> findRecipesContainingAnyIngredients(
-            @RequestBody List<Long> itemIds) {
-        List<RecipeEntity> recipes = recipeService.findRecipesContainingIngredients(itemIds);
-        List<RecipeDto> recipesDto = recipes.stream()
-                .map(recipeMapper::mapTo)
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(recipesDto, HttpStatus.OK);
+    public ResponseEntity<MappingJacksonValue> findRecipesContainingAnyIngredients(
+            @RequestParam(value = "all", required = false) List<Long> allOf,
+            @RequestParam(value = "any", required = false) List<Long> anyOf,
+            @RequestParam(value = "none", required = false) List<Long> noneOf,
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields,
+            @RequestParam(value = "expand", required = false) String expand,
+            @RequestBody(required = false) List<Long> itemIds) {
+        try {
+            FieldSelection selection = recipeFields(fields, expand);
+            if (allOf != null || anyOf != null || noneOf != null) {
+                // The match can be most of the recipes, so it is always paged.
+                Long afterId = CursorPagination.decodeId(after);
+                int pageSize = CursorPagination.pageSize(limit);
+                List<RecipeDto> recipes = recipeService.findRecipesByIngredients(
+                        orEmpty(allOf), orEmpty(anyOf), orEmpty(noneOf), afterId, pageSize + 1, selection);
+                return FieldFilters.recipes(CursorPagination.page(recipes, pageSize, Function.identity(),
+                        recipe -> CursorPagination.encode(recipe.getId())), selection);
+            }
+            if (itemIds != null) {
+                // Older clients send the ids in the request body and match any of them.
+                return FieldFilters.recipes(new ResponseEntity<>(
+                        recipeService.findRecipesContainingIngredients(itemIds, selection), HttpStatus.OK), selection);
+            }
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private static FieldSelection recipeFields(String fields, String expand) {
+        return FieldSelection.parse(fields, expand, FieldSelection.RECIPE_FIELDS, true);
+    }
+
+    private static List<Long> orEmpty(List<Long> ids) {
+        return ids == null ? List.of() : ids;
     }
 }
@@ -0,0 +1,45 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.changelog.ChangeSet;
+import com.pham.freshguard.domain.dto.SyncDto;
+import com.pham.freshguard.services.SyncService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    /**
+     * Returns the items and recipes changed since {@code since}, a token from an earlier
+     * response, or everything when it is absent. Keep requesting with the returned token
+     * while {@code hasMore} is true.
+     */
+    @GetMapping()
+    public ResponseEntity<SyncDto> sync(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", required = false) Integer limit) {
+        try {
+            Long sequence = CursorPagination.decodeId(since);
+            ChangeSet changes = syncService.findChangesSince(sequence == null ? 0 : sequence,
+                    CursorPagination.pageSize(limit));
+            SyncDto sync = SyncDto.builder()
+                    .token(CursorPagination.encode(changes.lastSequence()))
+                    .items(changes.items())
+                    .recipes(changes.recipes())
+                    .deletedItemIds(changes.deletedItemIds())
+                    .deletedRecipeIds(changes.deletedRecipeIds())
+                    .hasMore(changes.hasMore())
+                    .build();
+            return new ResponseEntity<>(sync, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.pham.freshguard.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ConsumeResultDto {
+    public enum Status { CONSUMED, INSUFFICIENT_STOCK, NOT_FOUND }
+
+    private Long itemId;
+
+    private Status status;
+    private Integer remainingQuantity;
+}
@@ -0,0 +1,23 @@
+package com.pham.freshguard.domain.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CookableRecipeDto {
+    private RecipeDto recipe;
+
+    private Integer availableIngredients;
+    private Integer totalIngredients;
+    private Double matchRatio;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate soonestExpiration;
+}
@@ -0,0 +1,16 @@
+package com.pham.freshguard.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RecipeBodyDto {
+    private Long id;
+    private String description;
+    private String instructions;
+}
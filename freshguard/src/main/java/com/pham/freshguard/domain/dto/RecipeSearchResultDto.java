@@ -0,0 +1,17 @@
+package com.pham.freshguard.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RecipeSearchResultDto {
+    private Long id;
+
+    private String name;
+    private Float score;
+}
@@ -0,0 +1,20 @@
+package com.pham.freshguard.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SlowQueryDto {
+    private String sql;
+
+    private Long count;
+    private Long totalMillis;
+    private Long maxMillis;
+    private Double meanMillis;
+    private String plan;
+}
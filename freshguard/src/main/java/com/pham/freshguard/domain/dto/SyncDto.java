@@ -0,0 +1,22 @@
+package com.pham.freshguard.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SyncDto {
+    private String token;
+
+    private List<ItemDto> items;
+    private List<RecipeDto> recipes;
+    private List<Long> deletedItemIds;
+    private List<Long> deletedRecipeIds;
+    private Boolean hasMore;
+}
@@ -0,0 +1,31 @@
+package com.pham.freshguard.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The latest change to an item or recipe. The id is the change sequence number: an entity
+ * that changes again gets a new, higher id and its older entries are removed, so the log
+ * holds about one row per entity that exists or was deleted.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id")
+})
+public class ChangeLogEntity {
+    public enum EntityType { ITEM, RECIPE }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EntityType entityType;
+    @Column(nullable = false)
+    private Long entityId;
+}
@@ -0,0 +1,18 @@
+package com.pham.freshguard.domain.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The single row change log writers lock until they commit, so change sequence numbers are
+ * handed out in commit order.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "change_log_lock")
+public class ChangeLogLockEntity {
+    @Id
+    private Long id;
+}
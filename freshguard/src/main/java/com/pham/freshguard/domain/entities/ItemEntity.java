@@ -2,6 +2,9 @@ package com.pham.freshguard.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 import java.util.Set;
@@ -11,15 +14,26 @@ import java.util.Set;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "items")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_expiration_date", columnList = "expiration_date, id")
+})
 @EqualsAndHashCode(exclude = "recipes")
 @ToString(exclude = "recipes")
 public class ItemEntity {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_id_seq")
+    @SequenceGenerator(name = "item_id_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private Long id;
 
+    // Existing rows start at version 0 when the column is added.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String name;
     private String category; // "Dairy", "Meat", "Vegetable", etc.
     private LocalDate expirationDate;
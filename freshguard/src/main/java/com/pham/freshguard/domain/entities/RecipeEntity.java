@@ -2,6 +2,10 @@ package com.pham.freshguard.domain.entities;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.LazyGroup;
 
 import java.time.LocalDateTime;
 import java.util.Set;
@@ -11,19 +15,35 @@ import java.util.Set;
 @NoArgsConstructor
 @Builder
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Table(name = "recipes")
-@EqualsAndHashCode(exclude = "items")
-@ToString(exclude = "items")
+@EqualsAndHashCode(exclude = {"items", "description", "instructions"})
+@ToString(exclude = {"items", "description", "instructions"})
 public class RecipeEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_id_seq")
+    @SequenceGenerator(name = "recipe_id_seq", sequenceName = "recipe_id_seq", allocationSize = 50)
     private Long id;
 
+    // Existing rows start at version 0 when the column is added.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     private String name;
+    // The text columns are one lazy group, loaded together on first access, so recipes read
+    // for their links, existence or version checks never move them. They are left out of
+    // equals, hashCode and toString, which would otherwise load them.
     @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
     @Column(columnDefinition = "TEXT")
     private String description;
     @Lob
+    @Basic(fetch = FetchType.LAZY)
+    @LazyGroup("body")
     @Column(columnDefinition = "TEXT")
     private String instructions;
     private Integer servings;
@@ -31,6 +51,7 @@ public class RecipeEntity {
     private LocalDateTime createdAt;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JoinTable(
             name = "recipe_ingredients",
             joinColumns = @JoinColumn(name = "recipe_id"),
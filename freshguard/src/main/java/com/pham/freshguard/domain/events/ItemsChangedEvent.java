@@ -0,0 +1,14 @@
+package com.pham.freshguard.domain.events;
+
+import java.util.Collection;
+
+/**
+ * Published after items were created, updated or deleted. Listeners reload the listed ids;
+ * an id that no longer exists means the item was deleted. {@code created} is set when the
+ * change inserted the items.
+ */
+public record ItemsChangedEvent(Collection<Long> itemIds, boolean created) {
+    public ItemsChangedEvent(Collection<Long> itemIds) {
+        this(itemIds, false);
+    }
+}
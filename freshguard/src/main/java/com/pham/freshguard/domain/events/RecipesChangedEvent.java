@@ -0,0 +1,10 @@
+package com.pham.freshguard.domain.events;
+
+import java.util.Collection;
+
+/**
+ * Published after recipes or their ingredient links were created, updated or deleted.
+ * Listeners reload the listed ids; an id that no longer exists means the recipe was deleted.
+ */
+public record RecipesChangedEvent(Collection<Long> recipeIds) {
+}
@@ -0,0 +1,73 @@
+package com.pham.freshguard.domain.projections;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The fields a client asked for with {@code ?fields=}, and whether recipe ingredients are
+ * included with {@code ?expand=ingredients}. Projection queries select only these columns,
+ * plus the keys they need themselves, and join ingredients only when they are expanded.
+ */
+public record FieldSelection(Set<String> fields, boolean ingredients) {
+    public static final String INGREDIENTS = "ingredients";
+    public static final List<String> ITEM_FIELDS = List.of(
+            "id", "name", "category", "expirationDate", "purchaseDate", "quantity", "location");
+    public static final List<String> RECIPE_FIELDS = List.of(
+            "id", "name", "description", "instructions", "servings", "prepTimeMinutes", "createdAt");
+
+    public static final FieldSelection ALL_ITEM_FIELDS = new FieldSelection(Set.copyOf(ITEM_FIELDS), false);
+    public static final FieldSelection ALL_RECIPE_FIELDS = new FieldSelection(Set.copyOf(RECIPE_FIELDS), true);
+
+    /**
+     * Parses the {@code fields} and {@code expand} parameters, either of which may be null.
+     * Without {@code fields} every field is selected. Ingredients are expanded by default
+     * only when neither parameter is given, so existing clients keep the full representation.
+     */
+    public static FieldSelection parse(String fields, String expand, List<String> available, boolean expandable) {
+        Set<String> selected = fields == null ? Set.copyOf(available) : split(fields);
+        for (String field : selected) {
+            if (!available.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+        boolean ingredients = expandable && fields == null;
+        if (expand != null) {
+            Set<String> expanded = expand.isBlank() ? Set.of() : split(expand);
+            for (String association : expanded) {
+                if (!expandable || !association.equals(INGREDIENTS)) {
+                    throw new IllegalArgumentException("Cannot expand: " + association);
+                }
+            }
+            ingredients = expanded.contains(INGREDIENTS);
+        }
+        return new FieldSelection(selected, ingredients);
+    }
+
+    public boolean includes(String field) {
+        return fields.contains(field);
+    }
+
+    /**
+     * Names of the properties to serialize, including {@code ingredients} when expanded.
+     */
+    public Set<String> properties() {
+        Set<String> properties = new LinkedHashSet<>(fields);
+        if (ingredients) {
+            properties.add(INGREDIENTS);
+        }
+        return properties;
+    }
+
+    private static Set<String> split(String names) {
+        Set<String> split = Arrays.stream(names.split(","))
+                .map(String::trim)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (split.contains("")) {
+            throw new IllegalArgumentException("Empty field name");
+        }
+        return split;
+    }
+}
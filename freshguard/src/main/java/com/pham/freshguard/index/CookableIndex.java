@@ -0,0 +1,275 @@
+package com.pham.freshguard.index;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory view of the pantry and of the items each recipe uses, for ranking recipes by
+ * the share of their ingredients that are in stock. Items live in dense slots and recipes
+ * hold slot arrays, so a ranking pass is a scan over primitive arrays instead of a walk
+ * over entity graphs. Each slot also keeps a bitmap of the positions of the recipes using it,
+ * so removing an item only rewrites those recipes. Whether an item is in stock depends on
+ * the day it is asked, so expiry is evaluated per query rather than stored.
+ */
+@Component
+public class CookableIndex implements PantryIndex {
+    static final Comparator<CookableMatch> RANKING = ((Comparator<CookableMatch>) (a, b) -> Long.compare(
+            (long) b.availableIngredients() * a.totalIngredients(),
+            (long) a.availableIngredients() * b.totalIngredients()))
+            .thenComparing(CookableMatch::soonestExpiration, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CookableMatch::recipeId);
+
+    private static final long NO_EXPIRATION = Long.MAX_VALUE;
+    private static final int[] NO_SLOTS = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> itemSlots = new HashMap<>();
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private final Map<Long, Integer> recipePositions = new HashMap<>();
+    private int[] slotQuantities = new int[1024];
+    private long[] slotExpirations = new long[1024];
+    private RoaringBitmap[] slotRecipes = new RoaringBitmap[1024];
+    private int slotCount;
+    private long[] recipeIds = new long[1024];
+    private int[][] recipeSlots = new int[1024][];
+    private int recipeCount;
+
+    @Override
+    public void putItem(Long itemId, Integer quantity, LocalDate expirationDate) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(itemId);
+            slotQuantities[slot] = quantity == null ? 0 : quantity;
+            slotExpirations[slot] = expirationDate == null ? NO_EXPIRATION : expirationDate.toEpochDay();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeItems(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            Set<Integer> removed = new HashSet<>();
+            for (Long itemId : itemIds) {
+                Integer slot = itemSlots.remove(itemId);
+                if (slot != null) {
+                    slotQuantities[slot] = 0;
+                    removed.add(slot);
+                }
+            }
+            if (removed.isEmpty()) {
+                return;
+            }
+            // Deleting an item also deletes its recipe links.
+            RoaringBitmap affected = new RoaringBitmap();
+            for (int slot : removed) {
+                if (slotRecipes[slot] != null) {
+                    affected.or(slotRecipes[slot]);
+                    slotRecipes[slot] = null;
+                }
+            }
+            affected.forEach((int position) -> recipeSlots[position] = Arrays.stream(recipeSlots[position])
+                    .filter(slot -> !removed.contains(slot))
+                    .toArray());
+            freeSlots.addAll(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void putRecipe(Long recipeId, Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            int[] slots = itemIds.isEmpty() ? NO_SLOTS : itemIds.stream()
+                    .distinct()
+                    .mapToInt(this::slotOf)
+                    .toArray();
+            Integer position = recipePositions.get(recipeId);
+            if (position == null) {
+                if (recipeCount == recipeIds.length) {
+                    recipeIds = Arrays.copyOf(recipeIds, recipeCount * 2);
+                    recipeSlots = Arrays.copyOf(recipeSlots, recipeCount * 2);
+                }
+                position = recipeCount++;
+                recipeIds[position] = recipeId;
+                recipePositions.put(recipeId, position);
+            } else {
+                unlink(position, recipeSlots[position]);
+            }
+            recipeSlots[position] = slots;
+            link(position, slots);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeRecipes(Collection<Long> recipeIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long recipeId : recipeIds) {
+                Integer position = recipePositions.remove(recipeId);
+                if (position == null) {
+                    continue;
+                }
+                unlink(position, recipeSlots[position]);
+                // Move the last recipe into the freed position to keep the arrays dense.
+                int last = --recipeCount;
+                if (position != last) {
+                    unlink(last, recipeSlots[last]);
+                    this.recipeIds[position] = this.recipeIds[last];
+                    recipeSlots[position] = recipeSlots[last];
+                    recipePositions.put(this.recipeIds[position], position);
+                    link(position, recipeSlots[position]);
+                }
+                recipeSlots[last] = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            itemSlots.clear();
+            freeSlots.clear();
+            recipePositions.clear();
+            Arrays.fill(slotQuantities, 0);
+            Arrays.fill(recipeSlots, null);
+            Arrays.fill(slotRecipes, null);
+            slotCount = 0;
+            recipeCount = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} recipes with at least one ingredient in stock on
+     * {@code today}: highest share of in-stock ingredients first, then the recipe using the
+     * soonest-expiring item, then the lowest id.
+     */
+    public List<CookableMatch> rank(LocalDate today, int limit) {
+        lock.readLock().lock();
+        try {
+            // Per-slot stock flags and expirations (NO_EXPIRATION when out of stock) keep the
+            // inner loop free of data-dependent branches.
+            long todayEpochDay = today.toEpochDay();
+            int[] inStock = new int[slotCount];
+            long[] stockExpirations = new long[slotCount];
+            for (int slot = 0; slot < slotCount; slot++) {
+                boolean available = slotQuantities[slot] > 0 && slotExpirations[slot] >= todayEpochDay;
+                inStock[slot] = available ? 1 : 0;
+                stockExpirations[slot] = available ? slotExpirations[slot] : NO_EXPIRATION;
+            }
+
+            // Candidates are compared on primitives against the current worst entry and only
+            // materialized when they make it into the top.
+            PriorityQueue<CookableMatch> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            int worstAvailable = 0;
+            int worstTotal = 1;
+            long worstSoonest = NO_EXPIRATION;
+            long worstId = Long.MAX_VALUE;
+            for (int position = 0; position < recipeCount; position++) {
+                int[] slots = recipeSlots[position];
+                int available = 0;
+                long soonest = NO_EXPIRATION;
+                for (int slot : slots) {
+                    available += inStock[slot];
+                    soonest = Math.min(soonest, stockExpirations[slot]);
+                }
+                long recipeId = recipeIds[position];
+                if (available == 0 || (top.size() == limit && !ranksBefore(available, slots.length, soonest, recipeId,
+                        worstAvailable, worstTotal, worstSoonest, worstId))) {
+                    continue;
+                }
+                top.add(new CookableMatch(recipeId, available, slots.length,
+                        soonest == NO_EXPIRATION ? null : LocalDate.ofEpochDay(soonest)));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+                if (top.size() == limit) {
+                    CookableMatch worst = top.peek();
+                    worstAvailable = worst.availableIngredients();
+                    worstTotal = worst.totalIngredients();
+                    worstSoonest = worst.soonestExpiration() == null ? NO_EXPIRATION : worst.soonestExpiration().toEpochDay();
+                    worstId = worst.recipeId();
+                }
+            }
+
+            List<CookableMatch> result = new ArrayList<>(top);
+            result.sort(RANKING);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Same order as RANKING.
+    private static boolean ranksBefore(int available, int total, long soonest, long recipeId,
+                                       int otherAvailable, int otherTotal, long otherSoonest, long otherId) {
+        long share = (long) available * otherTotal;
+        long otherShare = (long) otherAvailable * total;
+        if (share != otherShare) {
+            return share > otherShare;
+        }
+        if (soonest != otherSoonest) {
+            return soonest < otherSoonest;
+        }
+        return recipeId < otherId;
+    }
+
+    private void link(int position, int[] slots) {
+        for (int slot : slots) {
+            if (slotRecipes[slot] == null) {
+                slotRecipes[slot] = new RoaringBitmap();
+            }
+            slotRecipes[slot].add(position);
+        }
+    }
+
+    private void unlink(int position, int[] slots) {
+        for (int slot : slots) {
+            slotRecipes[slot].remove(position);
+            if (slotRecipes[slot].isEmpty()) {
+                slotRecipes[slot] = null;
+            }
+        }
+    }
+
+    private int slotOf(Long itemId) {
+        Integer slot = itemSlots.get(itemId);
+        if (slot != null) {
+            return slot;
+        }
+        int newSlot = freeSlots.isEmpty() ? slotCount++ : freeSlots.poll();
+        if (newSlot == slotQuantities.length) {
+            slotQuantities = Arrays.copyOf(slotQuantities, newSlot * 2);
+            slotExpirations = Arrays.copyOf(slotExpirations, newSlot * 2);
+            slotRecipes = Arrays.copyOf(slotRecipes, newSlot * 2);
+        }
+        slotQuantities[newSlot] = 0;
+        slotExpirations[newSlot] = NO_EXPIRATION;
+        itemSlots.put(itemId, newSlot);
+        return newSlot;
+    }
+}
@@ -0,0 +1,14 @@
+package com.pham.freshguard.index;
+
+import java.time.LocalDate;
+
+/**
+ * A recipe's standing against the current pantry. {@code soonestExpiration} is the earliest
+ * expiration date among the in-stock ingredients, or null when none of them expire.
+ */
+public record CookableMatch(Long recipeId, int availableIngredients, int totalIngredients, LocalDate soonestExpiration) {
+
+    public double matchRatio() {
+        return (double) availableIngredients / totalIngredients;
+    }
+}
@@ -0,0 +1,102 @@
+package com.pham.freshguard.index;
+
+import com.pham.freshguard.domain.events.ItemsChangedEvent;
+import com.pham.freshguard.domain.events.RecipesChangedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the in-memory indexes consistent with the database. They are built from the
+ * tables on startup and afterwards reload only the rows named in change events, once the
+ * publishing transaction has committed (or straight away when there was none).
+ */
+@Component
+public class IndexSynchronizer {
+    private static final String ITEMS_SQL = "SELECT id, quantity, expiration_date FROM items";
+    private static final String RECIPES_SQL =
+            "SELECT r.id, ri.item_id FROM recipes r LEFT JOIN recipe_ingredients ri ON ri.recipe_id = r.id";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final List<PantryIndex> indexes;
+
+    public IndexSynchronizer(DataSource dataSource, List<PantryIndex> indexes) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.indexes = indexes;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        indexes.forEach(PantryIndex::clear);
+        loadItems(ITEMS_SQL, new MapSqlParameterSource());
+        loadRecipes(RECIPES_SQL, new MapSqlParameterSource())
+                .forEach((recipeId, itemIds) -> indexes.forEach(index -> index.putRecipe(recipeId, itemIds)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        if (event.itemIds().isEmpty()) {
+            return;
+        }
+        Set<Long> found = loadItems(ITEMS_SQL + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", event.itemIds()));
+        Set<Long> removed = missing(event.itemIds(), found);
+        indexes.forEach(index -> index.removeItems(removed));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        if (event.recipeIds().isEmpty()) {
+            return;
+        }
+        Map<Long, List<Long>> recipes = loadRecipes(RECIPES_SQL + " WHERE r.id IN (:ids)",
+                new MapSqlParameterSource("ids", event.recipeIds()));
+        recipes.forEach((recipeId, itemIds) -> indexes.forEach(index -> index.putRecipe(recipeId, itemIds)));
+        Set<Long> removed = missing(event.recipeIds(), recipes.keySet());
+        indexes.forEach(index -> index.removeRecipes(removed));
+    }
+
+    private Set<Long> loadItems(String sql, MapSqlParameterSource parameters) {
+        Set<Long> found = new HashSet<>();
+        jdbcTemplate.query(sql, parameters, rs -> {
+            long id = rs.getLong("id");
+            int quantity = rs.getInt("quantity");
+            Date expirationDate = rs.getDate("expiration_date");
+            LocalDate expiration = expirationDate == null ? null : expirationDate.toLocalDate();
+            indexes.forEach(index -> index.putItem(id, quantity, expiration));
+            found.add(id);
+        });
+        return found;
+    }
+
+    private Map<Long, List<Long>> loadRecipes(String sql, MapSqlParameterSource parameters) {
+        Map<Long, List<Long>> recipes = new LinkedHashMap<>();
+        jdbcTemplate.query(sql, parameters, rs -> {
+            List<Long> itemIds = recipes.computeIfAbsent(rs.getLong("id"), id -> new ArrayList<>());
+            long itemId = rs.getLong("item_id");
+            if (!rs.wasNull()) {
+                itemIds.add(itemId);
+            }
+        });
+        return recipes;
+    }
+
+    private static Set<Long> missing(Collection<Long> requested, Set<Long> found) {
+        Set<Long> missing = new HashSet<>(requested);
+        missing.removeAll(found);
+        return missing;
+    }
+}
@@ -0,0 +1,173 @@
+package com.pham.freshguard.index;
+
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from item id to the ids of the recipes that use it, as compressed
+ * bitmaps. Boolean ingredient queries become bitmap intersections, unions and differences
+ * instead of joins over recipe_ingredients. Recipe ids come from a sequence and are kept
+ * in 32-bit bitmaps as unsigned ints, which supports ids up to 2^32 - 1.
+ */
+@Component
+public class IngredientIndex implements PantryIndex {
+    private static final long[] EMPTY = new long[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RoaringBitmap> recipesByItem = new HashMap<>();
+    private final Map<Long, long[]> itemsByRecipe = new HashMap<>();
+    private final RoaringBitmap allRecipes = new RoaringBitmap();
+
+    @Override
+    public void putItem(Long itemId, Integer quantity, LocalDate expirationDate) {
+        // Stock levels do not affect which recipes use an item.
+    }
+
+    @Override
+    public void removeItems(Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : itemIds) {
+                RoaringBitmap recipes = recipesByItem.remove(itemId);
+                if (recipes == null) {
+                    continue;
+                }
+                // Deleting an item also deletes its recipe links.
+                recipes.forEach((int recipeId) -> itemsByRecipe.computeIfPresent(Integer.toUnsignedLong(recipeId), (id, items) -> Arrays.stream(items)
+                        .filter(item -> item != itemId)
+                        .toArray()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void putRecipe(Long recipeId, Collection<Long> itemIds) {
+        lock.writeLock().lock();
+        try {
+            long[] items = itemIds.stream().mapToLong(Long::longValue).distinct().sorted().toArray();
+            long[] previous = itemsByRecipe.put(recipeId, items);
+            if (previous != null) {
+                for (long itemId : previous) {
+                    if (Arrays.binarySearch(items, itemId) < 0) {
+                        removePosting(itemId, recipeId);
+                    }
+                }
+            }
+            int bit = toBit(recipeId);
+            for (long itemId : items) {
+                recipesByItem.computeIfAbsent(itemId, id -> new RoaringBitmap()).add(bit);
+            }
+            allRecipes.add(bit);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeRecipes(Collection<Long> recipeIds) {
+        lock.writeLock().lock();
+        try {
+            for (Long recipeId : recipeIds) {
+                for (long itemId : itemsByRecipe.getOrDefault(recipeId, EMPTY)) {
+                    removePosting(itemId, recipeId);
+                }
+                itemsByRecipe.remove(recipeId);
+                allRecipes.remove(toBit(recipeId));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            recipesByItem.clear();
+            itemsByRecipe.clear();
+            allRecipes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids, in ascending order, of the recipes that use every item in
+     * {@code allOf}, at least one item in {@code anyOf} and no item in {@code noneOf}.
+     * An empty collection places no constraint.
+     */
+    public long[] find(Collection<Long> allOf, Collection<Long> anyOf, Collection<Long> noneOf) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result;
+            if (!allOf.isEmpty()) {
+                result = null;
+                for (Long itemId : allOf) {
+                    RoaringBitmap recipes = recipesByItem.get(itemId);
+                    if (recipes == null) {
+                        return EMPTY;
+                    }
+                    if (result == null) {
+                        result = recipes.clone();
+                    } else {
+                        result.and(recipes);
+                    }
+                }
+                if (!anyOf.isEmpty()) {
+                    result.and(union(anyOf));
+                }
+            } else if (!anyOf.isEmpty()) {
+                result = union(anyOf);
+            } else {
+                result = allRecipes.clone();
+            }
+            if (!noneOf.isEmpty()) {
+                result.andNot(union(noneOf));
+            }
+            int[] bits = result.toArray();
+            long[] recipeIds = new long[bits.length];
+            for (int i = 0; i < bits.length; i++) {
+                recipeIds[i] = Integer.toUnsignedLong(bits[i]);
+            }
+            return recipeIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap union(Collection<Long> itemIds) {
+        return FastAggregation.or(itemIds.stream()
+                .map(recipesByItem::get)
+                .filter(Objects::nonNull)
+                .iterator());
+    }
+
+    private static int toBit(long recipeId) {
+        if (recipeId < 0 || recipeId >>> 32 != 0) {
+            throw new IllegalArgumentException("Recipe id out of index range: " + recipeId);
+        }
+        return (int) recipeId;
+    }
+
+    private void removePosting(long itemId, long recipeId) {
+        RoaringBitmap recipes = recipesByItem.get(itemId);
+        if (recipes != null) {
+            recipes.remove(toBit(recipeId));
+            if (recipes.isEmpty()) {
+                recipesByItem.remove(itemId);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.pham.freshguard.index;
+
+import com.pham.freshguard.domain.events.ItemsChangedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over item names and categories, ranked by how many items use each term.
+ * Prefixes of at least {@value #FUZZY_PREFIX_LENGTH} characters also match terms one typo
+ * away; shorter ones would match nearly everything. Like the other indexes it is built on
+ * startup and reloads only the items named in change events.
+ */
+@Component
+public class ItemSuggestionIndex {
+    static final int FUZZY_PREFIX_LENGTH = 3;
+
+    private static final String ITEMS_SQL = "SELECT id, name, category FROM items";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SuggestionTrie trie = new SuggestionTrie();
+    private final Map<Long, String[]> termsByItem = new HashMap<>();
+
+    public ItemSuggestionIndex(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            trie.clear();
+            termsByItem.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loadItems(ITEMS_SQL, new MapSqlParameterSource());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        if (event.itemIds().isEmpty()) {
+            return;
+        }
+        Set<Long> removed = new HashSet<>(event.itemIds());
+        removed.removeAll(loadItems(ITEMS_SQL + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", event.itemIds())));
+        lock.writeLock().lock();
+        try {
+            for (Long itemId : removed) {
+                replaceTerms(itemId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        int maxEdits = prefix.strip().length() >= FUZZY_PREFIX_LENGTH ? 1 : 0;
+        lock.readLock().lock();
+        try {
+            return trie.complete(prefix, limit, maxEdits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Set<Long> loadItems(String sql, MapSqlParameterSource parameters) {
+        Set<Long> found = new HashSet<>();
+        jdbcTemplate.query(sql, parameters, rs -> {
+            long id = rs.getLong("id");
+            String[] terms = Arrays.stream(new String[] {rs.getString("name"), rs.getString("category")})
+                    .filter(Objects::nonNull)
+                    .filter(term -> !term.isBlank())
+                    .toArray(String[]::new);
+            lock.writeLock().lock();
+            try {
+                replaceTerms(id, terms);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            found.add(id);
+        });
+        return found;
+    }
+
+    private void replaceTerms(Long itemId, String[] terms) {
+        String[] previous = terms == null ? termsByItem.remove(itemId) : termsByItem.put(itemId, terms);
+        if (Arrays.equals(previous, terms)) {
+            return;
+        }
+        if (previous != null) {
+            Arrays.stream(previous).forEach(trie::remove);
+        }
+        if (terms != null) {
+            Arrays.stream(terms).forEach(trie::add);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.pham.freshguard.index;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * An in-memory read model over items and recipe ingredient links, kept up to date by
+ * {@link IndexSynchronizer}.
+ */
+public interface PantryIndex {
+    void putItem(Long itemId, Integer quantity, LocalDate expirationDate);
+    void removeItems(Collection<Long> itemIds);
+    void putRecipe(Long recipeId, Collection<Long> itemIds);
+    void removeRecipes(Collection<Long> recipeIds);
+    void clear();
+}
@@ -0,0 +1,7 @@
+package com.pham.freshguard.index;
+
+/**
+ * A full-text match. {@code score} is the BM25 relevance; it only orders hits of one query.
+ */
+public record RecipeSearchHit(Long recipeId, String name, float score) {
+}
@@ -0,0 +1,245 @@
+package com.pham.freshguard.index;
+
+import com.pham.freshguard.domain.events.RecipesChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Full-text index over recipe names, descriptions and instructions. Text is tokenized,
+ * stop-word filtered and stemmed, and hits are ranked with BM25, so searches never read the
+ * TEXT columns. The index lives in a local directory and records a fingerprint of the
+ * recipes table when it is committed; on startup it is only rebuilt when the fingerprint
+ * no longer matches. If the directory is locked by another instance the index is kept in
+ * memory instead.
+ */
+@Component
+public class RecipeSearchIndex {
+    private static final String RECIPES_SQL = "SELECT id, name, description, instructions FROM recipes";
+    private static final String FINGERPRINT_SQL =
+            "SELECT COUNT(*) || ':' || COALESCE(SUM(version), 0) || ':' || COALESCE(MAX(id), 0) FROM recipes";
+    private static final String FINGERPRINT_KEY = "recipes";
+    private static final int REBUILD_FETCH_SIZE = 1000;
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            NAME, 3f,
+            "description", 1.5f,
+            "instructions", 1f);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Analyzer analyzer = new EnglishAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public RecipeSearchIndex(DataSource dataSource, PlatformTransactionManager transactionManager,
+                             @Value("${freshguard.search.index-dir}") Path indexDir) throws IOException {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.jdbcTemplate.getJdbcTemplate().setFetchSize(REBUILD_FETCH_SIZE);
+        // The rebuild runs in a transaction so PostgreSQL streams rows instead of buffering the table.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.writer = openWriter(indexDir);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfStale() throws IOException {
+        String fingerprint = fingerprint();
+        if (fingerprint.equals(committedFingerprint())) {
+            return;
+        }
+        writer.deleteAll();
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.getJdbcTemplate().query(RECIPES_SQL,
+                rs -> {
+                    try {
+                        writer.addDocument(document(rs));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+        commit(fingerprint);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) throws IOException {
+        if (event.recipeIds().isEmpty()) {
+            return;
+        }
+        Set<Long> removed = new HashSet<>(event.recipeIds());
+        jdbcTemplate.query(RECIPES_SQL + " WHERE id IN (:ids)", new MapSqlParameterSource("ids", event.recipeIds()),
+                rs -> {
+                    try {
+                        writer.updateDocument(idTerm(rs.getLong(ID)), document(rs));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    removed.remove(rs.getLong(ID));
+                });
+        for (Long recipeId : removed) {
+            writer.deleteDocuments(idTerm(recipeId));
+        }
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Returns the best {@code limit} recipes for {@code text}, highest score first. A name
+     * match counts more than a description match, which counts more than an instruction match.
+     */
+    public List<RecipeSearchHit> search(String text, int limit) {
+        try {
+            return doSearch(text, limit);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<RecipeSearchHit> doSearch(String text, int limit) throws IOException {
+        Set<String> terms = analyze(text);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        FIELD_BOOSTS.forEach((field, boost) -> terms.forEach(term -> query.add(
+                new BoostQuery(new TermQuery(new Term(field, term)), boost), BooleanClause.Occur.SHOULD)));
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query.build(), limit);
+            StoredFields storedFields = searcher.storedFields();
+            List<RecipeSearchHit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                Document document = storedFields.document(scoreDoc.doc);
+                hits.add(new RecipeSearchHit(Long.valueOf(document.get(ID)), document.get(NAME), scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        String fingerprint;
+        try {
+            fingerprint = fingerprint();
+        } catch (DataAccessException e) {
+            // Without a fingerprint the next startup rebuilds the index.
+            fingerprint = "";
+        }
+        commit(fingerprint);
+        searcherManager.close();
+        writer.close();
+    }
+
+    private static IndexWriter openWriter(Path indexDir) throws IOException {
+        Directory directory = FSDirectory.open(indexDir);
+        try {
+            return new IndexWriter(directory, new IndexWriterConfig(new EnglishAnalyzer()));
+        } catch (LockObtainFailedException e) {
+            directory.close();
+            return new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(new EnglishAnalyzer()));
+        }
+    }
+
+    private String fingerprint() {
+        return jdbcTemplate.getJdbcTemplate().queryForObject(FINGERPRINT_SQL, String.class);
+    }
+
+    private String committedFingerprint() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (entry.getKey().equals(FINGERPRINT_KEY)) {
+                    return entry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    private void commit(String fingerprint) throws IOException {
+        writer.setLiveCommitData(Map.of(FINGERPRINT_KEY, fingerprint).entrySet());
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private Set<String> analyze(String text) throws IOException {
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        }
+        return terms;
+    }
+
+    private static Document document(ResultSet rs) throws SQLException {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(rs.getLong(ID)), Field.Store.YES));
+        String name = rs.getString(NAME);
+        if (name != null) {
+            document.add(new TextField(NAME, name, Field.Store.YES));
+        }
+        for (String field : List.of("description", "instructions")) {
+            String value = rs.getString(field);
+            if (value != null) {
+                document.add(new TextField(field, value, Field.Store.NO));
+            }
+        }
+        return document;
+    }
+
+    private static Term idTerm(long recipeId) {
+        return new Term(ID, String.valueOf(recipeId));
+    }
+}
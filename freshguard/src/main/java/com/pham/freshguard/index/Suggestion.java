@@ -0,0 +1,8 @@
+package com.pham.freshguard.index;
+
+/**
+ * A completion of a typed prefix. {@code count} is how many items use the term and
+ * {@code distance} is the number of edits that were needed to match the prefix.
+ */
+public record Suggestion(String term, int count, int distance) {
+}
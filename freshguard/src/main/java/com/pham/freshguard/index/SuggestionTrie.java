@@ -0,0 +1,210 @@
+package com.pham.freshguard.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Counted terms in a character trie, completed most frequent first. Terms are matched
+ * case-insensitively. Every node records the highest count below it, so completions are
+ * visited best-first and a lookup stops after {@code limit} terms instead of walking the
+ * whole subtree. Children are kept in sorted arrays rather than maps to keep nodes small.
+ * Not thread-safe.
+ */
+public class SuggestionTrie {
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Comparator<Candidate> BEST_FIRST = Comparator.comparingInt(Candidate::distance)
+            .thenComparing(Comparator.comparingInt(Candidate::score).reversed())
+            .thenComparing(Candidate::terminal, Comparator.reverseOrder());
+
+    private Node root = new Node();
+
+    public void add(String term) {
+        String key = normalize(term);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node node = root;
+        Node[] path = new Node[key.length() + 1];
+        path[0] = node;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            path[i + 1] = node;
+        }
+        if (node.count++ == 0) {
+            node.term = term.strip();
+        }
+        for (Node onPath : path) {
+            onPath.best = Math.max(onPath.best, node.count);
+        }
+    }
+
+    public void remove(String term) {
+        String key = normalize(term);
+        if (key.isEmpty()) {
+            return;
+        }
+        Node[] path = new Node[key.length() + 1];
+        path[0] = root;
+        for (int i = 0; i < key.length(); i++) {
+            path[i + 1] = path[i].child(key.charAt(i));
+            if (path[i + 1] == null) {
+                return;
+            }
+        }
+        Node node = path[key.length()];
+        if (node.count == 0) {
+            return;
+        }
+        if (--node.count == 0) {
+            node.term = null;
+        }
+        for (int i = key.length(); i >= 0; i--) {
+            path[i].updateBest();
+            if (i > 0 && path[i].best == 0) {
+                path[i - 1].removeChild(key.charAt(i - 1));
+            }
+        }
+    }
+
+    public void clear() {
+        root = new Node();
+    }
+
+    /**
+     * Returns up to {@code limit} terms starting with {@code prefix}, or with a prefix at most
+     * {@code maxEdits} insertions, deletions, substitutions or adjacent transpositions away.
+     * Closer matches come first, then more frequent ones.
+     */
+    public List<Suggestion> complete(String prefix, int limit, int maxEdits) {
+        Map<Node, Integer> starts = new IdentityHashMap<>();
+        collectStarts(root, normalize(prefix), 0, 0, maxEdits, starts);
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(BEST_FIRST);
+        starts.forEach((node, distance) -> queue.add(new Candidate(node, distance, false)));
+        Set<Node> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Suggestion> suggestions = new ArrayList<>(Math.min(limit, 16));
+        while (!queue.isEmpty() && suggestions.size() < limit) {
+            Candidate candidate = queue.poll();
+            Node node = candidate.node();
+            if (candidate.terminal()) {
+                suggestions.add(new Suggestion(node.term, node.count, candidate.distance()));
+            } else if (visited.add(node)) {
+                if (node.count > 0) {
+                    queue.add(new Candidate(node, candidate.distance(), true));
+                }
+                for (Node child : node.children) {
+                    queue.add(new Candidate(child, candidate.distance(), false));
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    private static void collectStarts(Node node, String prefix, int position, int edits, int maxEdits,
+                                      Map<Node, Integer> starts) {
+        if (position == prefix.length()) {
+            starts.merge(node, edits, Math::min);
+            return;
+        }
+        char c = prefix.charAt(position);
+        Node next = node.child(c);
+        if (next != null) {
+            collectStarts(next, prefix, position + 1, edits, maxEdits, starts);
+        }
+        if (edits == maxEdits) {
+            return;
+        }
+        // Deletion: the prefix has a character the term does not.
+        collectStarts(node, prefix, position + 1, edits + 1, maxEdits, starts);
+        for (int i = 0; i < node.keys.length; i++) {
+            Node child = node.children[i];
+            if (node.keys[i] != c) {
+                collectStarts(child, prefix, position + 1, edits + 1, maxEdits, starts);
+            }
+            // Insertion: the term has a character the prefix lacks.
+            collectStarts(child, prefix, position, edits + 1, maxEdits, starts);
+        }
+        if (position + 1 < prefix.length()) {
+            Node swapped = node.child(prefix.charAt(position + 1));
+            swapped = swapped == null ? null : swapped.child(c);
+            if (swapped != null) {
+                collectStarts(swapped, prefix, position + 2, edits + 1, maxEdits, starts);
+            }
+        }
+    }
+
+    private static String normalize(String term) {
+        return term == null ? "" : term.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Candidate(Node node, int distance, boolean terminal) {
+        int score() {
+            return terminal ? node.count : node.best;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private String term;
+        private int count;
+        private int best;
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+
+        Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node();
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = child;
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return child;
+        }
+
+        void removeChild(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys.length == 0 ? NO_KEYS : newKeys;
+            children = newChildren.length == 0 ? NO_CHILDREN : newChildren;
+        }
+
+        void updateBest() {
+            int max = count;
+            for (Node child : children) {
+                max = Math.max(max, child.best);
+            }
+            best = max;
+        }
+    }
+}
@@ -3,25 +3,35 @@ package com.pham.freshguard.mappers.impl;
 import com.pham.freshguard.domain.dto.ItemDto;
 import com.pham.freshguard.domain.entities.ItemEntity;
 import com.pham.freshguard.mappers.Mapper;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ItemMapperImpl implements Mapper<ItemEntity, ItemDto> {
-    private ModelMapper modelMapper;
-
-    public ItemMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
 
     @Override
     public ItemDto mapTo(ItemEntity itemEntity) {
-        return modelMapper.map(itemEntity, ItemDto.class);
+        return ItemDto.builder()
+                .id(itemEntity.getId())
+                .name(itemEntity.getName())
+                .category(itemEntity.getCategory())
+                .expirationDate(itemEntity.getExpirationDate())
+                .purchaseDate(itemEntity.getPurchaseDate())
+                .quantity(itemEntity.getQuantity())
+                .location(itemEntity.getLocation())
+                .build();
     }
 
     @Override
     public ItemEntity mapFrom(ItemDto itemDto) {
-        return modelMapper.map(itemDto, ItemEntity.class);
+        ItemEntity itemEntity = new ItemEntity();
+        itemEntity.setId(itemDto.getId());
+        itemEntity.setName(itemDto.getName());
+        itemEntity.setCategory(itemDto.getCategory());
+        itemEntity.setExpirationDate(itemDto.getExpirationDate());
+        itemEntity.setPurchaseDate(itemDto.getPurchaseDate());
+        itemEntity.setQuantity(itemDto.getQuantity());
+        itemEntity.setLocation(itemDto.getLocation());
+        return itemEntity;
     }
 
 }
@@ -1,27 +1,62 @@
 package com.pham.freshguard.mappers.impl;
 
+import com.pham.freshguard.domain.dto.ItemDto;
 import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
 import com.pham.freshguard.domain.entities.RecipeEntity;
 import com.pham.freshguard.mappers.Mapper;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import java.util.HashSet;
+import java.util.Set;
+
 @Component
 public class RecipeMapperImpl implements Mapper<RecipeEntity, RecipeDto> {
-    private ModelMapper modelMapper;
+    private final Mapper<ItemEntity, ItemDto> itemMapper;
 
-    public RecipeMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
+    public RecipeMapperImpl(Mapper<ItemEntity, ItemDto> itemMapper) {
+        this.itemMapper = itemMapper;
     }
 
     @Override
     public RecipeDto mapTo(RecipeEntity recipeEntity) {
-        return modelMapper.map(recipeEntity, RecipeDto.class);
+        Set<ItemDto> ingredients = null;
+        if (recipeEntity.getIngredients() != null) {
+            ingredients = HashSet.newHashSet(recipeEntity.getIngredients().size());
+            for (ItemEntity ingredient : recipeEntity.getIngredients()) {
+                ingredients.add(itemMapper.mapTo(ingredient));
+            }
+        }
+        return RecipeDto.builder()
+                .id(recipeEntity.getId())
+                .name(recipeEntity.getName())
+                .description(recipeEntity.getDescription())
+                .instructions(recipeEntity.getInstructions())
+                .servings(recipeEntity.getServings())
+                .prepTimeMinutes(recipeEntity.getPrepTimeMinutes())
+                .createdAt(recipeEntity.getCreatedAt())
+                .ingredients(ingredients)
+                .build();
     }
 
     @Override
     public RecipeEntity mapFrom(RecipeDto recipeDto) {
-        return modelMapper.map(recipeDto, RecipeEntity.class);
+        RecipeEntity recipeEntity = new RecipeEntity();
+        recipeEntity.setId(recipeDto.getId());
+        recipeEntity.setName(recipeDto.getName());
+        recipeEntity.setDescription(recipeDto.getDescription());
+        recipeEntity.setInstructions(recipeDto.getInstructions());
+        recipeEntity.setServings(recipeDto.getServings());
+        recipeEntity.setPrepTimeMinutes(recipeDto.getPrepTimeMinutes());
+        recipeEntity.setCreatedAt(recipeDto.getCreatedAt());
+        if (recipeDto.getIngredients() != null) {
+            Set<ItemEntity> ingredients = HashSet.newHashSet(recipeDto.getIngredients().size());
+            for (ItemDto ingredient : recipeDto.getIngredients()) {
+                ingredients.add(itemMapper.mapFrom(ingredient));
+            }
+            recipeEntity.setIngredients(ingredients);
+        }
+        return recipeEntity;
     }
 
 }
@@ -0,0 +1,35 @@
+package com.pham.freshguard.notifications;
+
+import java.util.Collection;
+
+/**
+ * A change pushed to subscribers. {@code sequence} increases by one per notification and
+ * restarts with the application, so the event id also carries the {@code epoch} of the run.
+ * A reconnecting client can then resume after the last id it saw.
+ */
+public record ChangeNotification(String epoch, long sequence, Type type, Collection<Long> ids) {
+    public String id() {
+        return epoch + "-" + sequence;
+    }
+
+    public enum Type {
+        ITEM_CREATED("item-created"),
+        ITEM_UPDATED("item-updated"),
+        ITEM_DELETED("item-deleted"),
+        ITEM_EXPIRED("item-expired"),
+        RECIPE_CHANGED("recipe-changed"),
+        RECIPE_DELETED("recipe-deleted"),
+        // The requested position is no longer buffered; the client should resync.
+        RESET("reset");
+
+        private final String eventName;
+
+        Type(String eventName) {
+            this.eventName = eventName;
+        }
+
+        public String eventName() {
+            return eventName;
+        }
+    }
+}
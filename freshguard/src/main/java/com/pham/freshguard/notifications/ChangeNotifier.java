@@ -0,0 +1,80 @@
+package com.pham.freshguard.notifications;
+
+import com.pham.freshguard.domain.events.ItemsChangedEvent;
+import com.pham.freshguard.domain.events.RecipesChangedEvent;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns committed item and recipe changes into notifications on the {@link ChangeStream},
+ * and notifies items that expired since the previous daily check.
+ */
+@Component
+public class ChangeNotifier {
+    private static final String EXISTING_ITEMS_SQL = "SELECT id FROM items WHERE id IN (:ids)";
+    private static final String EXISTING_RECIPES_SQL = "SELECT id FROM recipes WHERE id IN (:ids)";
+    private static final String EXPIRED_ITEMS_SQL =
+            "SELECT id FROM items WHERE expiration_date >= :from AND expiration_date < :until";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ChangeStream changeStream;
+    private LocalDate lastExpiryCheck = LocalDate.now();
+
+    public ChangeNotifier(DataSource dataSource, ChangeStream changeStream) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.changeStream = changeStream;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        if (event.itemIds().isEmpty()) {
+            return;
+        }
+        List<Long> existing = jdbcTemplate.queryForList(EXISTING_ITEMS_SQL,
+                new MapSqlParameterSource("ids", event.itemIds()), Long.class);
+        Set<Long> deleted = new HashSet<>(event.itemIds());
+        existing.forEach(deleted::remove);
+        changeStream.publish(event.created() ? ChangeNotification.Type.ITEM_CREATED : ChangeNotification.Type.ITEM_UPDATED,
+                existing);
+        changeStream.publish(ChangeNotification.Type.ITEM_DELETED, deleted);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipesChanged(RecipesChangedEvent event) {
+        if (event.recipeIds().isEmpty()) {
+            return;
+        }
+        List<Long> changed = jdbcTemplate.queryForList(EXISTING_RECIPES_SQL,
+                new MapSqlParameterSource("ids", event.recipeIds()), Long.class);
+        Set<Long> deleted = new HashSet<>(event.recipeIds());
+        changed.forEach(deleted::remove);
+        changeStream.publish(ChangeNotification.Type.RECIPE_CHANGED, changed);
+        changeStream.publish(ChangeNotification.Type.RECIPE_DELETED, deleted);
+    }
+
+    /**
+     * Notifies items whose expiration date passed since the last check. An item is expired
+     * from the day after its expiration date.
+     */
+    @Scheduled(cron = "${freshguard.events.expiry-check-cron:0 0 * * * *}")
+    public synchronized void checkExpirations() {
+        LocalDate today = LocalDate.now();
+        if (!today.isAfter(lastExpiryCheck)) {
+            return;
+        }
+        List<Long> expired = jdbcTemplate.queryForList(EXPIRED_ITEMS_SQL, new MapSqlParameterSource()
+                .addValue("from", lastExpiryCheck)
+                .addValue("until", today), Long.class);
+        changeStream.publish(ChangeNotification.Type.ITEM_EXPIRED, expired);
+        lastExpiryCheck = today;
+    }
+}
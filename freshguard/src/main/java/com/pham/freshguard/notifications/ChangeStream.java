@@ -0,0 +1,256 @@
+package com.pham.freshguard.notifications;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Fans change notifications out to subscribers. Publishing only appends to each subscriber's
+ * bounded buffer; a small shared pool writes buffers to the clients, so connections do not
+ * hold threads. A subscriber whose buffer fills up is disconnected and can resume from its
+ * last event id, which replays from the most recent notifications kept in memory. Idle
+ * subscribers get a periodic heartbeat.
+ * <p>
+ * A client that stops reading makes its write block. Such a write still holds a pool thread
+ * until the socket gives up, so once it has taken longer than the write timeout its
+ * subscriber is evicted and the pool gets a spare thread for as long as the write stays
+ * stuck; the remaining subscribers keep the full pool.
+ */
+@Component
+public class ChangeStream {
+    private static final long STALLED = -1;
+
+    private final String epoch;
+    private final int bufferSize;
+    private final int replaySize;
+    private final ExecutorService dispatcher;
+    private final long writeTimeoutNanos;
+    private final long origin = System.nanoTime();
+    private final Deque<ChangeNotification> recent = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long lastId;
+
+    @Autowired
+    public ChangeStream(@Value("${freshguard.events.buffer-size:256}") int bufferSize,
+                        @Value("${freshguard.events.replay-size:1024}") int replaySize,
+                        @Value("${freshguard.events.dispatch-threads:4}") int dispatchThreads,
+                        @Value("${freshguard.events.write-timeout:10s}") Duration writeTimeout) {
+        this(Long.toString(System.currentTimeMillis(), Character.MAX_RADIX), bufferSize, replaySize, Executors.newFixedThreadPool(dispatchThreads, runnable -> {
+            Thread thread = new Thread(runnable, "change-stream");
+            thread.setDaemon(true);
+            return thread;
+        }), writeTimeout);
+    }
+
+    ChangeStream(String epoch, int bufferSize, int replaySize, ExecutorService dispatcher, Duration writeTimeout) {
+        this.epoch = epoch;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.dispatcher = dispatcher;
+        this.writeTimeoutNanos = writeTimeout.toNanos();
+    }
+
+    public void publish(ChangeNotification.Type type, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Subscriber> ready = new ArrayList<>();
+        synchronized (recent) {
+            ChangeNotification notification = new ChangeNotification(epoch, ++lastId, type, List.copyOf(ids));
+            recent.addLast(notification);
+            if (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.buffer.offer(notification)) {
+                    ready.add(subscriber);
+                } else {
+                    unsubscribe(subscriber);
+                }
+            }
+        }
+        ready.forEach(this::dispatch);
+    }
+
+    /**
+     * Subscribes {@code sink} to notifications after {@code lastEventId}, or to new ones only
+     * when it is null. If that position is no longer buffered, or was issued before a restart,
+     * the sink first receives a {@link ChangeNotification.Type#RESET} notification and then
+     * new ones.
+     */
+    public Subscriber subscribe(String lastEventId, NotificationSink sink) {
+        Subscriber subscriber = new Subscriber(sink);
+        synchronized (recent) {
+            long sequence = lastEventId == null ? lastId : sequenceOf(lastEventId);
+            if (sequence != lastId) {
+                List<ChangeNotification> missed = recent.stream()
+                        .filter(notification -> notification.sequence() > sequence)
+                        .collect(Collectors.toList());
+                boolean complete = sequence >= 0 && !missed.isEmpty() && missed.get(0).sequence() == sequence + 1;
+                if (complete && missed.size() <= bufferSize) {
+                    subscriber.buffer.addAll(missed);
+                } else {
+                    subscriber.buffer.add(new ChangeNotification(epoch, lastId, ChangeNotification.Type.RESET, List.of()));
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        dispatch(subscriber);
+        return subscriber;
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.buffer.clear();
+            // Closing waits for a write in progress, so it must not take a pool thread.
+            Thread.ofVirtual().name("change-stream-close").start(subscriber.sink::close);
+        }
+    }
+
+    /**
+     * Evicts subscribers whose current write has been blocked for longer than the write timeout.
+     */
+    @Scheduled(fixedRateString = "${freshguard.events.stall-check-interval:1s}")
+    public void evictStalled() {
+        long now = now();
+        for (Subscriber subscriber : subscribers) {
+            long started = subscriber.writeStarted.get();
+            if (started > 0 && now - started > writeTimeoutNanos
+                    && subscriber.writeStarted.compareAndSet(started, STALLED)) {
+                resizeDispatcher(1);
+                unsubscribe(subscriber);
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${freshguard.events.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue.set(true);
+            dispatch(subscriber);
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(this::unsubscribe);
+        dispatcher.shutdown();
+    }
+
+    private void dispatch(Subscriber subscriber) {
+        if ((!subscriber.buffer.isEmpty() || subscriber.heartbeatDue.get())
+                && subscriber.draining.compareAndSet(false, true)) {
+            dispatcher.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * The sequence number in an event id of this run, or -1 for ids of another run.
+     */
+    private long sequenceOf(String eventId) {
+        String prefix = epoch + "-";
+        if (!eventId.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            return Math.max(Long.parseLong(eventId.substring(prefix.length())), -1);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            ChangeNotification notification;
+            while (subscribers.contains(subscriber) && (notification = subscriber.buffer.poll()) != null) {
+                ChangeNotification next = notification;
+                write(subscriber, () -> subscriber.sink.send(next));
+            }
+            if (subscriber.heartbeatDue.getAndSet(false) && subscribers.contains(subscriber)) {
+                write(subscriber, subscriber.sink::heartbeat);
+            }
+        } catch (IOException | RuntimeException e) {
+            unsubscribe(subscriber);
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Work that arrived after the loop ended but before the flag was cleared.
+        if (subscribers.contains(subscriber)) {
+            dispatch(subscriber);
+        }
+    }
+
+    private void write(Subscriber subscriber, Write write) throws IOException {
+        long started = now();
+        subscriber.writeStarted.set(started);
+        try {
+            write.run();
+        } finally {
+            if (!subscriber.writeStarted.compareAndSet(started, 0)) {
+                // Evicted as stalled meanwhile: this thread is back, so drop the spare.
+                resizeDispatcher(-1);
+            }
+        }
+    }
+
+    private synchronized void resizeDispatcher(int delta) {
+        if (dispatcher instanceof ThreadPoolExecutor pool && !pool.isShutdown()) {
+            int size = pool.getCorePoolSize() + delta;
+            if (delta > 0) {
+                pool.setMaximumPoolSize(size);
+                pool.setCorePoolSize(size);
+            } else {
+                pool.setCorePoolSize(size);
+                pool.setMaximumPoolSize(size);
+            }
+        }
+    }
+
+    /**
+     * Positive nanoseconds since this stream was created.
+     */
+    private long now() {
+        return System.nanoTime() - origin + 1;
+    }
+
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    public final class Subscriber {
+        private final NotificationSink sink;
+        private final BlockingQueue<ChangeNotification> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        // When the write in progress started, 0 between writes, or STALLED once evicted for it.
+        private final AtomicLong writeStarted = new AtomicLong();
+
+        private Subscriber(NotificationSink sink) {
+            this.sink = sink;
+        }
+    }
+}
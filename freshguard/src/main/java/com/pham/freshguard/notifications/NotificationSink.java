@@ -0,0 +1,15 @@
+package com.pham.freshguard.notifications;
+
+import java.io.IOException;
+
+/**
+ * Delivers notifications to one connected client.
+ */
+public interface NotificationSink {
+    void send(ChangeNotification notification) throws IOException;
+    /**
+     * Writes something the client ignores, so idle connections are not dropped along the way.
+     */
+    void heartbeat() throws IOException;
+    void close();
+}
@@ -0,0 +1,13 @@
+package com.pham.freshguard.repositories;
+
+import com.pham.freshguard.domain.entities.ChangeLogEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChangeLogRepository extends CrudRepository<ChangeLogEntity, Long> {
+    List<ChangeLogEntity> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -0,0 +1,26 @@
+package com.pham.freshguard.repositories;
+
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only item queries that select only the requested columns straight into {@link ItemDto},
+ * so no entities are hydrated, registered in the persistence context or snapshotted for
+ * dirty checking. Unselected DTO fields are left null.
+ */
+public interface ItemProjectionRepository {
+    List<ItemDto> findDtos(FieldSelection fields);
+
+    List<ItemDto> findDtoPage(Long afterId, FieldSelection fields, Limit limit);
+
+    List<ItemDto> findDtosByIdIn(Collection<Long> ids, FieldSelection fields);
+
+    List<ItemDto> findDtosByExpirationDateAfterSeek(LocalDate afterDate, Long afterId, LocalDate until,
+                                                    String category, String location,
+                                                    FieldSelection fields, Limit limit);
+}
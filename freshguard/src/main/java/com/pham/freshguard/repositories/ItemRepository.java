@@ -1,9 +1,42 @@
 package com.pham.freshguard.repositories;
 
 import com.pham.freshguard.domain.entities.ItemEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
-public interface ItemRepository extends CrudRepository<ItemEntity, Long> {
+public interface ItemRepository extends CrudRepository<ItemEntity, Long>, ItemProjectionRepository {
+    @Query("SELECT i.id FROM ItemEntity i WHERE i.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.id FROM ItemEntity i")
+    List<Long> findAllIds();
+
+    @Query("SELECT i.id FROM ItemEntity i WHERE i.expirationDate < :date")
+    List<Long> findIdsByExpirationDateBefore(@Param("date") LocalDate date);
+
+    // Bulk deletes clear the recipe links first; both run as single statements regardless of fan-out.
+    // The item delete invalidates the cached items and the ingredient sets referencing them.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_ingredients"))
+    @Query(value = "DELETE FROM recipe_ingredients WHERE item_id IN :ids", nativeQuery = true)
+    int deleteRecipeLinksByItemIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ItemEntity i WHERE i.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM ItemEntity i WHERE i.id = :id AND i.version = :version")
+    int deleteByIdAndVersion(@Param("id") Long id, @Param("version") Long version);
 }
@@ -0,0 +1,23 @@
+package com.pham.freshguard.repositories;
+
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only recipe queries that select only the requested columns straight into
+ * {@link RecipeDto}, joining ingredients only when they are expanded. No entities are
+ * hydrated, registered in the persistence context or snapshotted for dirty checking.
+ */
+public interface RecipeProjectionRepository {
+    List<RecipeDto> findDtos(FieldSelection fields);
+
+    List<RecipeDto> findDtoPage(Long afterId, FieldSelection fields, Limit limit);
+
+    List<RecipeDto> findDtosByIdIn(Collection<Long> ids, FieldSelection fields);
+
+    List<RecipeDto> findDtosContainingIngredients(Collection<Long> itemIds, FieldSelection fields);
+}
@@ -1,15 +1,47 @@
 package com.pham.freshguard.repositories;
 
+import com.pham.freshguard.domain.dto.RecipeBodyDto;
 import com.pham.freshguard.domain.entities.RecipeEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface RecipeRepository extends CrudRepository<RecipeEntity, Long> {
-    @Query("SELECT DISTINCT r FROM RecipeEntity r JOIN r.ingredients i WHERE i.id IN :itemIds")
-    List<RecipeEntity> findRecipesContainingIngredients(@Param("itemIds") List<Long> itemIds);
+public interface RecipeRepository extends CrudRepository<RecipeEntity, Long>, RecipeProjectionRepository {
+    @Query("SELECT r.id FROM RecipeEntity r")
+    List<Long> findAllIds();
+
+    @Query("SELECT new com.pham.freshguard.domain.dto.RecipeBodyDto(r.id, r.description, r.instructions) " +
+            "FROM RecipeEntity r WHERE r.id = :id")
+    Optional<RecipeBodyDto> findBodyById(@Param("id") Long id);
+
+    @Query(value = "SELECT item_id FROM recipe_ingredients WHERE recipe_id = :recipeId", nativeQuery = true)
+    List<Long> findIngredientIds(@Param("recipeId") Long recipeId);
+
+    // Link edits go straight to the join table. The persistence context is flushed before
+    // and cleared after, so a recipe loaded afterwards sees the new links. Naming the join
+    // table as the query space keeps Hibernate from evicting every second-level cache region;
+    // callers evict the ingredient sets they changed.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_ingredients"))
+    @Query(value = "INSERT INTO recipe_ingredients (recipe_id, item_id) " +
+            "SELECT :recipeId, i.id FROM items i WHERE i.id IN :itemIds " +
+            "AND NOT EXISTS (SELECT 1 FROM recipe_ingredients ri WHERE ri.recipe_id = :recipeId AND ri.item_id = i.id)",
+            nativeQuery = true)
+    int addIngredients(@Param("recipeId") Long recipeId, @Param("itemIds") Collection<Long> itemIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "recipe_ingredients"))
+    @Query(value = "DELETE FROM recipe_ingredients WHERE recipe_id = :recipeId AND item_id IN :itemIds",
+            nativeQuery = true)
+    int removeIngredients(@Param("recipeId") Long recipeId, @Param("itemIds") Collection<Long> itemIds);
 }
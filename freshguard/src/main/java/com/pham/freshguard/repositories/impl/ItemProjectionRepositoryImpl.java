@@ -0,0 +1,107 @@
+package com.pham.freshguard.repositories.impl;
+
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.repositories.ItemProjectionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ItemProjectionRepositoryImpl implements ItemProjectionRepository {
+    private final EntityManager entityManager;
+
+    public ItemProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<ItemDto> findDtos(FieldSelection fields) {
+        return query(fields, List.of("id"), "", Map.of(), "i.id", Limit.unlimited());
+    }
+
+    @Override
+    public List<ItemDto> findDtoPage(Long afterId, FieldSelection fields, Limit limit) {
+        if (afterId == null) {
+            return query(fields, List.of("id"), "", Map.of(), "i.id", limit);
+        }
+        return query(fields, List.of("id"), "WHERE i.id > :afterId", Map.of("afterId", afterId), "i.id", limit);
+    }
+
+    @Override
+    public List<ItemDto> findDtosByIdIn(Collection<Long> ids, FieldSelection fields) {
+        return query(fields, List.of("id"), "WHERE i.id IN :ids", Map.of("ids", ids), "i.id", Limit.unlimited());
+    }
+
+    @Override
+    public List<ItemDto> findDtosByExpirationDateAfterSeek(LocalDate afterDate, Long afterId, LocalDate until,
+                                                           String category, String location,
+                                                           FieldSelection fields, Limit limit) {
+        // The OR only narrows rows on the cursor's date; the plain range on expirationDate is
+        // what gives the index its lower bound.
+        StringBuilder where = new StringBuilder(
+                "WHERE i.expirationDate >= :afterDate AND i.expirationDate <= :until " +
+                "AND (i.expirationDate > :afterDate OR (i.expirationDate = :afterDate AND i.id > :afterId))");
+        Map<String, Object> parameters = new HashMap<>(Map.of("afterDate", afterDate, "afterId", afterId, "until", until));
+        if (category != null) {
+            where.append(" AND i.category = :category");
+            parameters.put("category", category);
+        }
+        if (location != null) {
+            where.append(" AND i.location = :location");
+            parameters.put("location", location);
+        }
+        // The cursor is built from (expiration_date, id), so both are selected whatever was requested.
+        return query(fields, List.of("id", "expirationDate"), where.toString(), parameters,
+                "i.expirationDate ASC, i.id ASC", limit);
+    }
+
+    /**
+     * Sets the item field named {@code field} from a selected column value.
+     */
+    static void setField(ItemDto item, String field, Object value) {
+        switch (field) {
+            case "id" -> item.setId((Long) value);
+            case "name" -> item.setName((String) value);
+            case "category" -> item.setCategory((String) value);
+            case "expirationDate" -> item.setExpirationDate((LocalDate) value);
+            case "purchaseDate" -> item.setPurchaseDate((LocalDate) value);
+            case "quantity" -> item.setQuantity((Integer) value);
+            case "location" -> item.setLocation((String) value);
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+
+    private List<ItemDto> query(FieldSelection fields, List<String> required, String where,
+                                Map<String, ?> parameters, String orderBy, Limit limit) {
+        List<String> columns = FieldSelection.ITEM_FIELDS.stream()
+                .filter(field -> fields.includes(field) || required.contains(field))
+                .collect(Collectors.toList());
+        String jpql = columns.stream()
+                .map(column -> "i." + column)
+                .collect(Collectors.joining(", ", "SELECT ", " FROM ItemEntity i " + where + " ORDER BY " + orderBy));
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        parameters.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+        List<Object[]> rows = query.getResultList();
+        List<ItemDto> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            ItemDto item = new ItemDto();
+            for (int i = 0; i < columns.size(); i++) {
+                setField(item, columns.get(i), row[i]);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+}
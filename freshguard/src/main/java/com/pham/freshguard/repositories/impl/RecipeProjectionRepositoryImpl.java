@@ -0,0 +1,126 @@
+package com.pham.freshguard.repositories.impl;
+
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.repositories.RecipeProjectionRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Limit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class RecipeProjectionRepositoryImpl implements RecipeProjectionRepository {
+    private static final String CONTAINING_INGREDIENTS =
+            "WHERE r.id IN (SELECT ri.id FROM RecipeEntity ri JOIN ri.ingredients ii WHERE ii.id IN :itemIds)";
+
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+
+    public RecipeProjectionRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<RecipeDto> findDtos(FieldSelection fields) {
+        return query(fields, "", Map.of(), Limit.unlimited());
+    }
+
+    @Override
+    public List<RecipeDto> findDtoPage(Long afterId, FieldSelection fields, Limit limit) {
+        String where = afterId == null ? "" : "WHERE r.id > :afterId";
+        Map<String, Object> parameters = afterId == null ? Map.of() : Map.of("afterId", afterId);
+        if (!fields.ingredients()) {
+            return query(fields, where, parameters, limit);
+        }
+        // A row limit on the ingredient join would cut recipes short, so the page's ids are selected first.
+        TypedQuery<Long> ids = entityManager.createQuery("SELECT r.id FROM RecipeEntity r " + where + " ORDER BY r.id",
+                Long.class);
+        parameters.forEach(ids::setParameter);
+        ids.setMaxResults(limit.max());
+        List<Long> pageIds = ids.getResultList();
+        return pageIds.isEmpty() ? List.of() : findDtosByIdIn(pageIds, fields);
+    }
+
+    @Override
+    public List<RecipeDto> findDtosByIdIn(Collection<Long> ids, FieldSelection fields) {
+        // Ids are bound in chunks to stay well within the driver's bind parameter limit.
+        List<Long> sortedIds = ids.stream().sorted().distinct().collect(Collectors.toList());
+        List<RecipeDto> recipes = new ArrayList<>();
+        for (int from = 0; from < sortedIds.size(); from += ID_CHUNK_SIZE) {
+            List<Long> chunk = sortedIds.subList(from, Math.min(from + ID_CHUNK_SIZE, sortedIds.size()));
+            recipes.addAll(query(fields, "WHERE r.id IN :ids", Map.of("ids", chunk), Limit.unlimited()));
+        }
+        return recipes;
+    }
+
+    @Override
+    public List<RecipeDto> findDtosContainingIngredients(Collection<Long> itemIds, FieldSelection fields) {
+        return query(fields, CONTAINING_INGREDIENTS, Map.of("itemIds", itemIds), Limit.unlimited());
+    }
+
+    private List<RecipeDto> query(FieldSelection fields, String where, Map<String, ?> parameters, Limit limit) {
+        // The id is always selected: rows of one recipe are grouped by it and cursors are built from it.
+        List<String> columns = FieldSelection.RECIPE_FIELDS.stream()
+                .filter(field -> field.equals("id") || fields.includes(field))
+                .collect(Collectors.toList());
+        List<String> selected = columns.stream().map(column -> "r." + column).collect(Collectors.toList());
+        String from = " FROM RecipeEntity r ";
+        if (fields.ingredients()) {
+            FieldSelection.ITEM_FIELDS.forEach(column -> selected.add("i." + column));
+            from = " FROM RecipeEntity r LEFT JOIN r.ingredients i ";
+        }
+        String jpql = "SELECT " + String.join(", ", selected) + from + where + " ORDER BY r.id";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        parameters.forEach(query::setParameter);
+        if (limit.isLimited()) {
+            query.setMaxResults(limit.max());
+        }
+
+        // Rows of one recipe are adjacent since they are ordered by recipe id.
+        List<RecipeDto> recipes = new ArrayList<>();
+        RecipeDto current = null;
+        for (Object[] row : query.getResultList()) {
+            if (current == null || !current.getId().equals(row[0])) {
+                current = new RecipeDto();
+                for (int i = 0; i < columns.size(); i++) {
+                    setField(current, columns.get(i), row[i]);
+                }
+                if (fields.ingredients()) {
+                    current.setIngredients(new HashSet<>());
+                }
+                recipes.add(current);
+            }
+            if (fields.ingredients() && row[columns.size()] != null) {
+                ItemDto ingredient = new ItemDto();
+                for (int i = 0; i < FieldSelection.ITEM_FIELDS.size(); i++) {
+                    ItemProjectionRepositoryImpl.setField(ingredient, FieldSelection.ITEM_FIELDS.get(i),
+                            row[columns.size() + i]);
+                }
+                current.getIngredients().add(ingredient);
+            }
+        }
+        return recipes;
+    }
+
+    private static void setField(RecipeDto recipe, String field, Object value) {
+        switch (field) {
+            case "id" -> recipe.setId((Long) value);
+            case "name" -> recipe.setName((String) value);
+            case "description" -> recipe.setDescription((String) value);
+            case "instructions" -> recipe.setInstructions((String) value);
+            case "servings" -> recipe.setServings((Integer) value);
+            case "prepTimeMinutes" -> recipe.setPrepTimeMinutes((Integer) value);
+            case "createdAt" -> recipe.setCreatedAt((LocalDateTime) value);
+            default -> throw new IllegalArgumentException("Unknown field: " + field);
+        }
+    }
+}
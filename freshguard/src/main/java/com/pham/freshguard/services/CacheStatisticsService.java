@@ -0,0 +1,9 @@
+package com.pham.freshguard.services;
+
+import com.pham.freshguard.domain.dto.CacheStatisticsDto;
+
+import java.util.List;
+
+public interface CacheStatisticsService {
+    List<CacheStatisticsDto> findAll();
+}
@@ -0,0 +1,9 @@
+package com.pham.freshguard.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface ExportService {
+    long exportItems(OutputStream out) throws IOException;
+    long exportRecipes(OutputStream out) throws IOException;
+}
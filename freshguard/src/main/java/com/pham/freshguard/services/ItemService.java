@@ -1,17 +1,35 @@
 package com.pham.freshguard.services;
 
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
 import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.index.Suggestion;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemService {
     ItemEntity save(ItemEntity itemEntity);
-    List<ItemEntity> findAll();
+    List<ItemEntity> saveAll(List<ItemEntity> itemEntities);
+    List<ItemDto> findAll(FieldSelection fields);
+    List<ItemDto> findPage(Long afterId, int limit, FieldSelection fields);
+    List<ItemDto> findByExpirationDateBetween(LocalDate from, LocalDate until, String category, String location,
+                                              LocalDate afterDate, Long afterId, int limit, FieldSelection fields);
+    List<Suggestion> suggest(String prefix, int limit);
     Optional<ItemEntity> findOne(Long id);
+    List<RecipeDto> findItemRecipes(Long id, FieldSelection fields);
     void deleteAll();
     void delete(Long id);
+    void delete(Long id, Long version);
+    int deleteAllById(Collection<Long> ids);
+    int deleteExpiredBefore(LocalDate date);
     boolean isExists(Long id);
     ItemEntity partialUpdate(Long id, ItemEntity itemEntity);
+    ConsumeResultDto consume(Long id, int amount);
+    List<ConsumeResultDto> consumeAll(Collection<Long> ids, int amount);
 
 }
@@ -1,23 +1,39 @@
 package com.pham.freshguard.services;
 
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
+import com.pham.freshguard.domain.dto.RecipeBodyDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
 import com.pham.freshguard.domain.entities.ItemEntity;
 import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.index.CookableMatch;
+import com.pham.freshguard.index.RecipeSearchHit;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RecipeService {
     RecipeEntity save(RecipeEntity recipeEntity);
-    List<RecipeEntity> findAll();
+    List<RecipeDto> findAll(FieldSelection fields);
+    List<RecipeDto> findPage(Long afterId, int limit, FieldSelection fields);
+    List<RecipeDto> findAllById(Collection<Long> ids, FieldSelection fields);
+    List<CookableMatch> findCookable(int limit);
+    List<RecipeSearchHit> search(String text, int limit);
     Optional<RecipeEntity> findOne(Long id);
+    Optional<RecipeBodyDto> findBody(Long id);
     void deleteAll();
     void delete(Long id);
+    void delete(Long id, Long version);
     boolean isExists(Long id);
     RecipeEntity partialUpdate(Long id, RecipeEntity recipeEntity);
     RecipeEntity addIngredientToRecipe(Long recipeId, Long itemId);
     RecipeEntity removeIngredientFromRecipe(Long recipeId, Long itemId);
     List<ItemEntity> getRecipeIngredients(Long recipeId);
-    List<RecipeEntity> findRecipesContainingIngredients(List<Long> itemIds);
+    List<RecipeDto> findRecipesContainingIngredients(List<Long> itemIds, FieldSelection fields);
+    List<RecipeDto> findRecipesByIngredients(Collection<Long> allOf, Collection<Long> anyOf, Collection<Long> noneOf,
+                                             Long afterId, int limit, FieldSelection fields);
     RecipeEntity setRecipeIngredients(Long recipeId, List<Long> itemIds);
+    List<ConsumeResultDto> consumeIngredients(Long recipeId, int amount);
 
 }
@@ -0,0 +1,9 @@
+package com.pham.freshguard.services;
+
+import com.pham.freshguard.domain.dto.SlowQueryDto;
+
+import java.util.List;
+
+public interface SlowQueryService {
+    List<SlowQueryDto> findSlowest(int limit);
+}
@@ -0,0 +1,7 @@
+package com.pham.freshguard.services;
+
+import com.pham.freshguard.changelog.ChangeSet;
+
+public interface SyncService {
+    ChangeSet findChangesSince(long sequence, int limit);
+}
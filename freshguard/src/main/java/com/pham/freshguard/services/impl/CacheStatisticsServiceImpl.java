@@ -0,0 +1,51 @@
+package com.pham.freshguard.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.pham.freshguard.domain.dto.CacheStatisticsDto;
+import com.pham.freshguard.services.CacheStatisticsService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the counters Caffeine keeps for each second-level cache region. Regions are the
+ * caches of the JCache manager Hibernate was started with.
+ */
+@Service
+public class CacheStatisticsServiceImpl implements CacheStatisticsService {
+    private final CacheManager cacheManager;
+
+    public CacheStatisticsServiceImpl(EntityManagerFactory entityManagerFactory) {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(RegionFactory.class);
+        this.cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+    }
+
+    @Override
+    public List<CacheStatisticsDto> findAll() {
+        return StreamSupport.stream(cacheManager.getCacheNames().spliterator(), false)
+                .sorted()
+                .map(name -> {
+                    Cache<?, ?> cache = cacheManager.getCache(name).unwrap(Cache.class);
+                    CacheStats stats = cache.stats();
+                    return CacheStatisticsDto.builder()
+                            .region(name)
+                            .size(cache.estimatedSize())
+                            .hitCount(stats.hitCount())
+                            .missCount(stats.missCount())
+                            .hitRate(stats.hitRate())
+                            .evictionCount(stats.evictionCount())
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+}
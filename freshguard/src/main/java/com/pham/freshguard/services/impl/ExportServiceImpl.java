@@ -0,0 +1,160 @@
+package com.pham.freshguard.services.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.services.ExportService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.HashSet;
+
+/**
+ * Streams whole tables as newline-delimited JSON. Rows are read through a forward-only
+ * JDBC cursor and written one at a time, so nothing is accumulated in a persistence
+ * context or in a list and heap use does not depend on the table size.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private static final String ITEMS_SQL =
+            "SELECT id, name, category, expiration_date, purchase_date, quantity, location " +
+            "FROM items ORDER BY id";
+
+    private static final String RECIPES_SQL =
+            "SELECT r.id, r.name, r.description, r.instructions, r.servings, r.prep_time_minutes, r.created_at, " +
+            "i.id AS item_id, i.name AS item_name, i.category AS item_category, " +
+            "i.expiration_date AS item_expiration_date, i.purchase_date AS item_purchase_date, " +
+            "i.quantity AS item_quantity, i.location AS item_location " +
+            "FROM recipes r " +
+            "LEFT JOIN recipe_ingredients ri ON ri.recipe_id = r.id " +
+            "LEFT JOIN items i ON i.id = ri.item_id " +
+            "ORDER BY r.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${freshguard.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PostgreSQL only honours the fetch size (server-side cursor) with auto-commit off.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public long exportItems(OutputStream out) throws IOException {
+        ObjectWriter writer = writerFor(ItemDto.class);
+        try (JsonGenerator generator = createGenerator(out)) {
+            long[] count = {0};
+            run(() -> jdbcTemplate.query(ITEMS_SQL, rs -> {
+                write(writer, generator, mapItem(rs, ""));
+                count[0]++;
+            }));
+            return count[0];
+        }
+    }
+
+    @Override
+    public long exportRecipes(OutputStream out) throws IOException {
+        ObjectWriter writer = writerFor(RecipeDto.class);
+        try (JsonGenerator generator = createGenerator(out)) {
+            long[] count = {0};
+            RecipeDto[] current = {null};
+            run(() -> jdbcTemplate.query(RECIPES_SQL, rs -> {
+                long recipeId = rs.getLong("id");
+                if (current[0] == null || current[0].getId() != recipeId) {
+                    if (current[0] != null) {
+                        write(writer, generator, current[0]);
+                        count[0]++;
+                    }
+                    current[0] = mapRecipe(rs);
+                }
+                if (rs.getObject("item_id") != null) {
+                    current[0].getIngredients().add(mapItem(rs, "item_"));
+                }
+            }));
+            if (current[0] != null) {
+                write(writer, generator, current[0]);
+                count[0]++;
+            }
+            return count[0];
+        }
+    }
+
+    // Lines are separated by the newline alone, without Jackson's space between root values.
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private ObjectWriter writerFor(Class<?> type) {
+        return objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private void run(Runnable query) throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> query.run());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void write(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ItemDto mapItem(ResultSet rs, String prefix) throws SQLException {
+        Date expirationDate = rs.getDate(prefix + "expiration_date");
+        Date purchaseDate = rs.getDate(prefix + "purchase_date");
+        return ItemDto.builder()
+                .id(rs.getLong(prefix + "id"))
+                .name(rs.getString(prefix + "name"))
+                .category(rs.getString(prefix + "category"))
+                .expirationDate(expirationDate == null ? null : expirationDate.toLocalDate())
+                .purchaseDate(purchaseDate == null ? null : purchaseDate.toLocalDate())
+                .quantity(rs.getObject(prefix + "quantity", Integer.class))
+                .location(rs.getString(prefix + "location"))
+                .build();
+    }
+
+    private static RecipeDto mapRecipe(ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return RecipeDto.builder()
+                .id(rs.getLong("id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .instructions(rs.getString("instructions"))
+                .servings(rs.getObject("servings", Integer.class))
+                .prepTimeMinutes(rs.getObject("prep_time_minutes", Integer.class))
+                .createdAt(createdAt == null ? null : createdAt.toLocalDateTime())
+                .ingredients(new HashSet<>())
+                .build();
+    }
+}
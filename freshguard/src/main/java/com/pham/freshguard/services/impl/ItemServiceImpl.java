@@ -1,39 +1,123 @@
 package com.pham.freshguard.services.impl;
 
+import com.pham.freshguard.cache.SecondLevelCacheEvictor;
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
 import com.pham.freshguard.domain.entities.ItemEntity;
-import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.events.ItemsChangedEvent;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.index.ItemSuggestionIndex;
+import com.pham.freshguard.index.Suggestion;
 import com.pham.freshguard.repositories.ItemRepository;
 import com.pham.freshguard.repositories.RecipeRepository;
 import com.pham.freshguard.services.ItemService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.sql.DataSource;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 
 @Service
+@Timed("freshguard.service")
 public class ItemServiceImpl implements ItemService {
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1, 1, 1);
+    private static final String CONSUME_SQL =
+            "UPDATE items SET quantity = quantity - ?, version = version + 1 WHERE id = ? AND quantity >= ?";
+    // Locks the rows in id order first, so overlapping batches cannot deadlock.
+    private static final String CONSUME_RETURNING_SQL =
+            "UPDATE items SET quantity = quantity - :amount, version = version + 1 " +
+            "WHERE id IN (SELECT id FROM items WHERE id IN (:ids) AND quantity >= :amount ORDER BY id FOR UPDATE) " +
+            "AND quantity >= :amount RETURNING id, quantity";
+    private static final String QUANTITIES_SQL = "SELECT id, quantity FROM items WHERE id IN (:ids)";
+
     private ItemRepository itemRepository;
     private RecipeRepository recipeRepository;
-    public ItemServiceImpl(ItemRepository itemRepository, RecipeRepository recipeRepository) {
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private ItemSuggestionIndex suggestionIndex;
+    private SecondLevelCacheEvictor cacheEvictor;
+    private ApplicationEventPublisher eventPublisher;
+    private volatile Boolean updateReturning;
+    public ItemServiceImpl(ItemRepository itemRepository, RecipeRepository recipeRepository, DataSource dataSource,
+                           ItemSuggestionIndex suggestionIndex, SecondLevelCacheEvictor cacheEvictor,
+                           ApplicationEventPublisher eventPublisher) {
         this.itemRepository = itemRepository;
         this.recipeRepository = recipeRepository;
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.suggestionIndex = suggestionIndex;
+        this.cacheEvictor = cacheEvictor;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public ItemEntity save(ItemEntity itemEntity) {
-        return itemRepository.save(itemEntity);
+        // Like save() itself, an entity without an id or a version is treated as new.
+        boolean created = itemEntity.getId() == null || itemEntity.getVersion() == null;
+        ItemEntity savedItem = itemRepository.save(itemEntity);
+        eventPublisher.publishEvent(new ItemsChangedEvent(List.of(savedItem.getId()), created));
+        return savedItem;
     }
 
     @Override
-    public List<ItemEntity> findAll() {
-        return StreamSupport.stream(itemRepository
-                                .findAll()
+    @Transactional
+    public List<ItemEntity> saveAll(List<ItemEntity> itemEntities) {
+        // Client-supplied ids would turn every row into a merge (select, then insert or update)
+        // and defeat insert batching, so batch creation always inserts.
+        itemEntities.forEach(itemEntity -> itemEntity.setId(null));
+        List<ItemEntity> savedItems = StreamSupport.stream(itemRepository
+                                .saveAll(itemEntities)
                                 .spliterator(),
                         false)
                 .collect(Collectors.toList());
+        eventPublisher.publishEvent(new ItemsChangedEvent(savedItems.stream()
+                .map(ItemEntity::getId)
+                .collect(Collectors.toList()), true));
+        return savedItems;
+    }
+
+    @Override
+    public List<ItemDto> findAll(FieldSelection fields) {
+        return itemRepository.findDtos(fields);
+    }
+
+    @Override
+    public List<ItemDto> findPage(Long afterId, int limit, FieldSelection fields) {
+        return itemRepository.findDtoPage(afterId, fields, Limit.of(limit));
+    }
+
+    @Override
+    public List<ItemDto> findByExpirationDateBetween(LocalDate from, LocalDate until, String category, String location,
+                                                     LocalDate afterDate, Long afterId, int limit,
+                                                     FieldSelection fields) {
+        // Both bounds collapse into one seek over (expiration_date, id). The query bounds the
+        // date on both sides, so every page, including the first, is a range scan on
+        // idx_items_expiration_date from the cursor up to until.
+        LocalDate seekDate = afterDate != null ? afterDate : Optional.ofNullable(from).orElse(EARLIEST_DATE);
+        Long seekId = afterDate != null ? afterId : Long.valueOf(Long.MIN_VALUE);
+        return itemRepository.findDtosByExpirationDateAfterSeek(seekDate, seekId, until, category, location,
+                fields, Limit.of(limit));
+    }
+
+    @Override
+    public List<Suggestion> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, limit);
     }
 
     @Override
@@ -42,16 +126,44 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public void delete(Long id){
-        List<Long> itemIds = new ArrayList<>();
-        itemIds.add(id);
-        List<RecipeEntity> recipesUsingItem = recipeRepository.findRecipesContainingIngredients(itemIds);
+    public List<RecipeDto> findItemRecipes(Long id, FieldSelection fields) {
+        return recipeRepository.findDtosContainingIngredients(List.of(id), fields);
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id) {
+        deleteAllById(List.of(id));
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id, Long version) {
+        itemRepository.deleteRecipeLinksByItemIdIn(List.of(id));
+        if (itemRepository.deleteByIdAndVersion(id, version) == 0) {
+            // Rolls the link delete back with it.
+            throw new ObjectOptimisticLockingFailureException(ItemEntity.class, id);
+        }
+        eventPublisher.publishEvent(new ItemsChangedEvent(List.of(id)));
+    }
 
-        for (RecipeEntity recipe : recipesUsingItem) {
-            recipe.getIngredients().removeIf(ingredient -> ingredient.getId().equals(id));
-            recipeRepository.save(recipe);
+    @Override
+    @Transactional
+    public int deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
         }
-        itemRepository.deleteById(id);
+        itemRepository.deleteRecipeLinksByItemIdIn(ids);
+        int deleted = itemRepository.deleteByIdIn(ids);
+        eventPublisher.publishEvent(new ItemsChangedEvent(ids));
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpiredBefore(LocalDate date) {
+        // The ids are selected first so listeners learn which items went away.
+        return deleteAllById(itemRepository.findIdsByExpirationDateBefore(date));
     }
 
     @Override
@@ -64,6 +176,9 @@ public class ItemServiceImpl implements ItemService {
         itemEntity.setId(id);
 
         return itemRepository.findById(id).map(item -> {
+            if (itemEntity.getVersion() != null && !itemEntity.getVersion().equals(item.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(ItemEntity.class, id);
+            }
             Optional.ofNullable(itemEntity.getName()).ifPresent(item::setName);
             Optional.ofNullable(itemEntity.getCategory()).ifPresent(item::setCategory);
             Optional.ofNullable(itemEntity.getExpirationDate()).ifPresent(item::setExpirationDate);
@@ -71,12 +186,94 @@ public class ItemServiceImpl implements ItemService {
             Optional.ofNullable(itemEntity.getQuantity()).ifPresent(item::setQuantity);
             Optional.ofNullable(itemEntity.getLocation()).ifPresent(item::setLocation);
             Optional.ofNullable(itemEntity.getRecipes()).ifPresent(item::setRecipes);
-            return itemRepository.save(item);
+            ItemEntity savedItem = itemRepository.save(item);
+            eventPublisher.publishEvent(new ItemsChangedEvent(List.of(id)));
+            return savedItem;
         }).orElseThrow(() -> new RuntimeException("Item does not exist"));
     }
 
+    @Override
+    @Transactional
+    public ConsumeResultDto consume(Long id, int amount) {
+        return consumeAll(List.of(id), amount).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<ConsumeResultDto> consumeAll(Collection<Long> ids, int amount) {
+        if (amount < 1) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        // Each item is one conditional update, so concurrent consumers never overdraw stock and
+        // nothing is read first. Ascending id order keeps overlapping batches from deadlocking.
+        List<Long> sortedIds = ids.stream().distinct().sorted().collect(Collectors.toList());
+        Map<Long, Integer> quantities = new HashMap<>();
+        Set<Long> consumed = new HashSet<>();
+        List<Long> unknown;
+        if (supportsUpdateReturning()) {
+            // One statement that also returns what is left; only the rest need a second look.
+            jdbcTemplate.query(CONSUME_RETURNING_SQL,
+                    new MapSqlParameterSource("ids", sortedIds).addValue("amount", amount), rs -> {
+                        consumed.add(rs.getLong("id"));
+                        quantities.put(rs.getLong("id"), rs.getObject("quantity", Integer.class));
+                    });
+            unknown = sortedIds.stream().filter(id -> !consumed.contains(id)).collect(Collectors.toList());
+        } else {
+            int[] updated = jdbcTemplate.getJdbcTemplate().batchUpdate(CONSUME_SQL, sortedIds.stream()
+                    .map(id -> new Object[]{amount, id, amount})
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] > 0) {
+                    consumed.add(sortedIds.get(i));
+                }
+            }
+            unknown = sortedIds;
+        }
+        if (!unknown.isEmpty()) {
+            jdbcTemplate.query(QUANTITIES_SQL, new MapSqlParameterSource("ids", unknown), rs -> {
+                quantities.put(rs.getLong("id"), rs.getObject("quantity", Integer.class));
+            });
+        }
+
+        List<ConsumeResultDto> results = new ArrayList<>(sortedIds.size());
+        List<Long> consumedIds = new ArrayList<>();
+        for (Long id : sortedIds) {
+            ConsumeResultDto.Status status;
+            if (consumed.contains(id)) {
+                status = ConsumeResultDto.Status.CONSUMED;
+                consumedIds.add(id);
+            } else if (quantities.containsKey(id)) {
+                status = ConsumeResultDto.Status.INSUFFICIENT_STOCK;
+            } else {
+                status = ConsumeResultDto.Status.NOT_FOUND;
+            }
+            results.add(new ConsumeResultDto(id, status, quantities.get(id)));
+        }
+        cacheEvictor.evictItems(consumedIds);
+        eventPublisher.publishEvent(new ItemsChangedEvent(consumedIds));
+        return results;
+    }
+
+    /**
+     * Whether the database can return rows from an UPDATE. PostgreSQL can; other databases,
+     * such as H2, fall back to counting updates and reading quantities afterwards.
+     */
+    private boolean supportsUpdateReturning() {
+        if (updateReturning == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            updateReturning = "PostgreSQL".equals(product);
+        }
+        return updateReturning;
+    }
+
     @Override
     public void deleteAll() {
+        List<Long> ids = itemRepository.findAllIds();
         itemRepository.deleteAll();
+        eventPublisher.publishEvent(new ItemsChangedEvent(ids));
     }
 }
@@ -1,41 +1,98 @@
 package com.pham.freshguard.services.impl;
 
+import com.pham.freshguard.cache.SecondLevelCacheEvictor;
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
+import com.pham.freshguard.domain.dto.RecipeBodyDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
 import com.pham.freshguard.domain.entities.ItemEntity;
 import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.domain.events.RecipesChangedEvent;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.index.CookableIndex;
+import com.pham.freshguard.index.CookableMatch;
+import com.pham.freshguard.index.IngredientIndex;
+import com.pham.freshguard.index.RecipeSearchHit;
+import com.pham.freshguard.index.RecipeSearchIndex;
 import com.pham.freshguard.repositories.ItemRepository;
 import com.pham.freshguard.repositories.RecipeRepository;
+import com.pham.freshguard.services.ItemService;
 import com.pham.freshguard.services.RecipeService;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @Service
+@Timed("freshguard.service")
 public class RecipeServiceImpl implements RecipeService {
     private RecipeRepository recipeRepository;
     private ItemRepository itemRepository;
+    private ItemService itemService;
+    private CookableIndex cookableIndex;
+    private IngredientIndex ingredientIndex;
+    private RecipeSearchIndex searchIndex;
+    private SecondLevelCacheEvictor cacheEvictor;
+    private ApplicationEventPublisher eventPublisher;
 
-    public RecipeServiceImpl(RecipeRepository recipeRepository, ItemRepository itemRepository) {
+    public RecipeServiceImpl(RecipeRepository recipeRepository, ItemRepository itemRepository, ItemService itemService,
+                             CookableIndex cookableIndex, IngredientIndex ingredientIndex, RecipeSearchIndex searchIndex,
+                             SecondLevelCacheEvictor cacheEvictor, ApplicationEventPublisher eventPublisher) {
         this.recipeRepository = recipeRepository;
         this.itemRepository = itemRepository;
+        this.itemService = itemService;
+        this.cookableIndex = cookableIndex;
+        this.ingredientIndex = ingredientIndex;
+        this.searchIndex = searchIndex;
+        this.cacheEvictor = cacheEvictor;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     public RecipeEntity save(RecipeEntity recipeEntity) {
-        return recipeRepository.save(recipeEntity);
+        RecipeEntity savedRecipe = recipeRepository.save(recipeEntity);
+        publishChanged(savedRecipe.getId());
+        return savedRecipe;
     }
 
     @Override
-    public List<RecipeEntity> findAll() {
-        return StreamSupport.stream(recipeRepository
-                                .findAll()
-                                .spliterator(),
-                        false)
-                .collect(Collectors.toList());
+    public List<RecipeDto> findAll(FieldSelection fields) {
+        return recipeRepository.findDtos(fields);
+    }
+
+    @Override
+    public List<RecipeDto> findPage(Long afterId, int limit, FieldSelection fields) {
+        return recipeRepository.findDtoPage(afterId, fields, Limit.of(limit));
+    }
+
+    @Override
+    public List<RecipeDto> findAllById(Collection<Long> ids, FieldSelection fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return recipeRepository.findDtosByIdIn(ids, fields);
+    }
+
+    @Override
+    public List<CookableMatch> findCookable(int limit) {
+        return cookableIndex.rank(LocalDate.now(), limit);
+    }
+
+    @Override
+    public List<RecipeSearchHit> search(String text, int limit) {
+        return searchIndex.search(text, limit);
     }
 
     @Override
@@ -43,14 +100,33 @@ public class RecipeServiceImpl implements RecipeService {
         return recipeRepository.findById(id);
     }
 
+    @Override
+    public Optional<RecipeBodyDto> findBody(Long id) {
+        return recipeRepository.findBodyById(id);
+    }
+
     @Override
     public void deleteAll() {
+        List<Long> ids = recipeRepository.findAllIds();
         recipeRepository.deleteAll();
+        eventPublisher.publishEvent(new RecipesChangedEvent(ids));
     }
 
     @Override
     public void delete(Long id) {
         recipeRepository.deleteById(id);
+        publishChanged(id);
+    }
+
+    @Override
+    @Transactional
+    public void delete(Long id, Long version) {
+        RecipeEntity recipe = findRecipe(id);
+        if (!recipe.getVersion().equals(version)) {
+            throw new ObjectOptimisticLockingFailureException(RecipeEntity.class, id);
+        }
+        recipeRepository.delete(recipe);
+        publishChanged(id);
     }
 
     @Override
@@ -63,50 +139,45 @@ public class RecipeServiceImpl implements RecipeService {
         recipeEntity.setId(id);
 
         return recipeRepository.findById(id).map(recipe -> {
+            if (recipeEntity.getVersion() != null && !recipeEntity.getVersion().equals(recipe.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(RecipeEntity.class, id);
+            }
             Optional.ofNullable(recipeEntity.getName()).ifPresent(recipe::setName);
             Optional.ofNullable(recipeEntity.getDescription()).ifPresent(recipe::setDescription);
             Optional.ofNullable(recipeEntity.getInstructions()).ifPresent(recipe::setInstructions);
             Optional.ofNullable(recipeEntity.getServings()).ifPresent(recipe::setServings);
             Optional.ofNullable(recipeEntity.getPrepTimeMinutes()).ifPresent(recipe::setPrepTimeMinutes);
             Optional.ofNullable(recipeEntity.getIngredients()).ifPresent(recipe::setIngredients);
-            return recipeRepository.save(recipe);
+            RecipeEntity savedRecipe = recipeRepository.save(recipe);
+            publishChanged(id);
+            return savedRecipe;
         }).orElseThrow(() -> new RuntimeException("Recipe not found"));
     }
 
     @Override
+    @Transactional
     public RecipeEntity addIngredientToRecipe(Long recipeId, Long itemId) {
-        RecipeEntity recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-
-        ItemEntity item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
-
-        if (recipe.getIngredients() == null) {
-            recipe.setIngredients(new HashSet<ItemEntity>());
-        }
-        if (item.getRecipes() == null) {
-            item.setRecipes(new HashSet<>());
+        checkRecipeExists(recipeId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new RuntimeException("Item not found");
         }
-
-        recipe.getIngredients().add(item);
-        item.getRecipes().add(recipe);
-
-        itemRepository.save(item);
-
-        return recipeRepository.save(recipe);
+        recipeRepository.addIngredients(recipeId, List.of(itemId));
+        cacheEvictor.evictIngredients(List.of(recipeId));
+        publishChanged(recipeId);
+        return findRecipe(recipeId);
     }
 
     @Override
+    @Transactional
     public RecipeEntity removeIngredientFromRecipe(Long recipeId, Long itemId) {
-        RecipeEntity recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
-
-        ItemEntity item = itemRepository.findById(itemId)
-                .orElseThrow(() -> new RuntimeException("Item not found"));
-
-        recipe.getIngredients().removeIf(i -> i.getId().equals(itemId));
-        item.getRecipes().removeIf(r -> r.getId().equals(recipeId));
-        return recipeRepository.save(recipe);
+        checkRecipeExists(recipeId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new RuntimeException("Item not found");
+        }
+        recipeRepository.removeIngredients(recipeId, List.of(itemId));
+        cacheEvictor.evictIngredients(List.of(recipeId));
+        publishChanged(recipeId);
+        return findRecipe(recipeId);
     }
 
     @Override
@@ -117,40 +188,76 @@ public class RecipeServiceImpl implements RecipeService {
     }
 
     @Override
-    public List<RecipeEntity> findRecipesContainingIngredients(List<Long> itemIds) {
-        return recipeRepository.findRecipesContainingIngredients(itemIds);
+    public List<RecipeDto> findRecipesContainingIngredients(List<Long> itemIds, FieldSelection fields) {
+        return recipeRepository.findDtosContainingIngredients(itemIds, fields);
     }
 
     @Override
-    public RecipeEntity setRecipeIngredients(Long recipeId, List<Long> itemIds) {
-        RecipeEntity recipe = recipeRepository.findById(recipeId)
-                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+    public List<RecipeDto> findRecipesByIngredients(Collection<Long> allOf, Collection<Long> anyOf,
+                                                    Collection<Long> noneOf, Long afterId, int limit,
+                                                    FieldSelection fields) {
+        long[] recipeIds = ingredientIndex.find(allOf, anyOf, noneOf);
+        // The ids are sorted, so the page starts right after the cursor's id.
+        int from = 0;
+        if (afterId != null) {
+            int position = Arrays.binarySearch(recipeIds, afterId);
+            from = position >= 0 ? position + 1 : -position - 1;
+        }
+        int to = (int) Math.min((long) from + limit, recipeIds.length);
+        return findAllById(Arrays.stream(recipeIds, from, to).boxed().collect(Collectors.toList()), fields);
+    }
 
-        Set<ItemEntity> newIngredients = itemIds.stream()
-                .map(itemId -> itemRepository.findById(itemId)
-                        .orElseThrow(() -> new RuntimeException("Item not found: " + itemId)))
-                .collect(Collectors.toSet());
+    @Override
+    @Transactional
+    public RecipeEntity setRecipeIngredients(Long recipeId, List<Long> itemIds) {
+        checkRecipeExists(recipeId);
 
-        if (recipe.getIngredients() != null) {
-            for (ItemEntity currentIngredient : recipe.getIngredients()) {
-                if (currentIngredient.getRecipes() != null) {
-                    currentIngredient.getRecipes().remove(recipe);
-                }
+        Set<Long> requested = new LinkedHashSet<>(itemIds);
+        if (!requested.isEmpty()) {
+            Set<Long> missing = new LinkedHashSet<>(requested);
+            itemRepository.findExistingIds(requested).forEach(missing::remove);
+            if (!missing.isEmpty()) {
+                throw new RuntimeException("Item not found: " + missing.iterator().next());
             }
         }
 
-        // Set new ingredients on recipe
-        recipe.setIngredients(newIngredients);
+        // Only the difference between the current and requested links is written.
+        Set<Long> current = new HashSet<>(recipeRepository.findIngredientIds(recipeId));
+        Set<Long> toRemove = new HashSet<>(current);
+        toRemove.removeAll(requested);
+        Set<Long> toAdd = new LinkedHashSet<>(requested);
+        toAdd.removeAll(current);
 
-        // Add this recipe to all new ingredients
-        for (ItemEntity newIngredient : newIngredients) {
-            if (newIngredient.getRecipes() == null) {
-                newIngredient.setRecipes(new HashSet<>());
-            }
-            newIngredient.getRecipes().add(recipe);
+        if (!toRemove.isEmpty()) {
+            recipeRepository.removeIngredients(recipeId, toRemove);
+        }
+        if (!toAdd.isEmpty()) {
+            recipeRepository.addIngredients(recipeId, toAdd);
+        }
+        cacheEvictor.evictIngredients(List.of(recipeId));
+        publishChanged(recipeId);
+        return findRecipe(recipeId);
+    }
+
+    @Override
+    @Transactional
+    public List<ConsumeResultDto> consumeIngredients(Long recipeId, int amount) {
+        checkRecipeExists(recipeId);
+        return itemService.consumeAll(recipeRepository.findIngredientIds(recipeId), amount);
+    }
+
+    private void checkRecipeExists(Long recipeId) {
+        if (!recipeRepository.existsById(recipeId)) {
+            throw new NoSuchElementException("Recipe not found");
         }
-        return recipeRepository.save(recipe);
     }
 
+    private void publishChanged(Long recipeId) {
+        eventPublisher.publishEvent(new RecipesChangedEvent(List.of(recipeId)));
+    }
 
+    private RecipeEntity findRecipe(Long recipeId) {
+        return recipeRepository.findById(recipeId)
+                .orElseThrow(() -> new RuntimeException("Recipe not found"));
+    }
 }
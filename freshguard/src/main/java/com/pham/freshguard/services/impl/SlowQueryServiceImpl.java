@@ -0,0 +1,22 @@
+package com.pham.freshguard.services.impl;
+
+import com.pham.freshguard.domain.dto.SlowQueryDto;
+import com.pham.freshguard.services.SlowQueryService;
+import com.pham.freshguard.sql.SlowQueryLog;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class SlowQueryServiceImpl implements SlowQueryService {
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryServiceImpl(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public List<SlowQueryDto> findSlowest(int limit) {
+        return slowQueryLog.top(limit);
+    }
+}
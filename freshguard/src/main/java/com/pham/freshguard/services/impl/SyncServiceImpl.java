@@ -0,0 +1,72 @@
+package com.pham.freshguard.services.impl;
+
+import com.pham.freshguard.changelog.ChangeSet;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.entities.ChangeLogEntity;
+import com.pham.freshguard.domain.projections.FieldSelection;
+import com.pham.freshguard.repositories.ChangeLogRepository;
+import com.pham.freshguard.repositories.ItemRepository;
+import com.pham.freshguard.repositories.RecipeRepository;
+import com.pham.freshguard.services.SyncService;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class SyncServiceImpl implements SyncService {
+    private ChangeLogRepository changeLogRepository;
+    private ItemRepository itemRepository;
+    private RecipeRepository recipeRepository;
+
+    public SyncServiceImpl(ChangeLogRepository changeLogRepository, ItemRepository itemRepository,
+                           RecipeRepository recipeRepository) {
+        this.changeLogRepository = changeLogRepository;
+        this.itemRepository = itemRepository;
+        this.recipeRepository = recipeRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeSet findChangesSince(long sequence, int limit) {
+        List<ChangeLogEntity> entries = changeLogRepository.findByIdGreaterThanOrderByIdAsc(sequence, Limit.of(limit + 1));
+        boolean hasMore = entries.size() > limit;
+        if (hasMore) {
+            entries = entries.subList(0, limit);
+        }
+        long lastSequence = entries.isEmpty() ? sequence : entries.get(entries.size() - 1).getId();
+
+        Set<Long> itemIds = entityIds(entries, ChangeLogEntity.EntityType.ITEM);
+        Set<Long> recipeIds = entityIds(entries, ChangeLogEntity.EntityType.RECIPE);
+        // Entries only name what changed; the current rows are loaded, and a missing row is a delete.
+        List<ItemDto> items = itemIds.isEmpty()
+                ? List.of()
+                : itemRepository.findDtosByIdIn(itemIds, FieldSelection.ALL_ITEM_FIELDS);
+        List<RecipeDto> recipes = recipeIds.isEmpty()
+                ? List.of()
+                : recipeRepository.findDtosByIdIn(recipeIds, FieldSelection.ALL_RECIPE_FIELDS);
+        return new ChangeSet(lastSequence, items, recipes,
+                deletedIds(itemIds, items.stream().map(ItemDto::getId).collect(Collectors.toSet())),
+                deletedIds(recipeIds, recipes.stream().map(RecipeDto::getId).collect(Collectors.toSet())),
+                hasMore);
+    }
+
+    private static Set<Long> entityIds(List<ChangeLogEntity> entries, ChangeLogEntity.EntityType entityType) {
+        return entries.stream()
+                .filter(entry -> entry.getEntityType() == entityType)
+                .map(ChangeLogEntity::getEntityId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static List<Long> deletedIds(Set<Long> changedIds, Set<Long> foundIds) {
+        List<Long> deletedIds = new ArrayList<>(changedIds);
+        deletedIds.removeAll(foundIds);
+        return deletedIds;
+    }
+}
@@ -0,0 +1,102 @@
+package com.pham.freshguard.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Wraps the data source so every JDBC statement is counted by {@link StatementCounter} and
+ * timed, and hands the slow ones to {@link SlowQueryLog}. Plans are explained on the
+ * unwrapped data source with the statement's own parameters, so explaining is never itself
+ * counted, timed or logged.
+ */
+@Component
+public class DataSourceProxyPostProcessor implements BeanPostProcessor {
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    public DataSourceProxyPostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+            return ProxyDataSourceBuilder.create(beanName, dataSource)
+                    .listener(new StatementListener(dataSource))
+                    .build();
+        }
+        return bean;
+    }
+
+    private class StatementListener implements QueryExecutionListener {
+        private final DataSource target;
+        // Resolved on first use: post-processors are created before the beans they could depend on.
+        private volatile SlowQueryLog log;
+
+        StatementListener(DataSource target) {
+            this.target = target;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo executionInfo, List<QueryInfo> queries) {
+            StatementCounter.add(queries.size());
+            if (log == null) {
+                log = slowQueryLog.getObject();
+            }
+            long elapsedMillis = executionInfo.getElapsedTime();
+            if (!log.isSlow(elapsedMillis)) {
+                return;
+            }
+            // A statement batch of several SQL strings is timed as a whole; each gets an equal
+            // share so the batch's time is counted once across its shapes, not once per shape.
+            for (int i = 0; i < queries.size(); i++) {
+                QueryInfo query = queries.get(i);
+                String sql = query.getQuery();
+                List<ParameterSetOperation> parameters = query.getParametersList().isEmpty()
+                        ? List.of()
+                        : List.copyOf(query.getParametersList().get(0));
+                long shareMillis = elapsedMillis / queries.size() + (i < elapsedMillis % queries.size() ? 1 : 0);
+                log.record(sql, shareMillis, executionInfo.getBatchSize(), executionInfo.isSuccess(),
+                        () -> explain(target, sql, parameters));
+            }
+        }
+    }
+
+    private static String explain(DataSource dataSource, String sql, List<ParameterSetOperation> parameters)
+            throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (ParameterSetOperation parameter : parameters) {
+                try {
+                    parameter.getMethod().invoke(statement, parameter.getArgs());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Could not bind parameter for EXPLAIN", e);
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+            return plan.toString().trim();
+        }
+    }
+}
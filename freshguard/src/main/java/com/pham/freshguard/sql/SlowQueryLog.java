@@ -0,0 +1,177 @@
+package com.pham.freshguard.sql;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pham.freshguard.domain.dto.SlowQueryDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Statements at or above the threshold, grouped by shape. Recording only updates the
+ * per-shape totals; the JSON log line, and the plan when explaining is on, are written on a
+ * single background thread. When that falls behind, log lines are dropped instead of
+ * holding up queries. Each shape is explained at most once.
+ */
+@Component
+public class SlowQueryLog {
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+    private static final int QUEUE_SIZE = 1024;
+
+    private final long thresholdMillis;
+    private final boolean explain;
+    private final int maxShapes;
+    private final ExecutorService writer;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, ShapeStats> shapes = new HashMap<>();
+
+    public SlowQueryLog(@Value("${freshguard.slow-query.threshold:200ms}") Duration threshold,
+                        @Value("${freshguard.slow-query.explain:false}") boolean explain,
+                        @Value("${freshguard.slow-query.max-shapes:500}") int maxShapes) {
+        this.thresholdMillis = threshold.toMillis();
+        this.explain = explain;
+        this.maxShapes = maxShapes;
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(QUEUE_SIZE),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    public boolean isSlow(long elapsedMillis) {
+        return elapsedMillis >= thresholdMillis;
+    }
+
+    public void record(String sql, long elapsedMillis, int batchSize, boolean success, Explainer explainer) {
+        String shape = SqlShapes.normalize(sql);
+        boolean planWanted;
+        synchronized (shapes) {
+            ShapeStats stats = shapes.get(shape);
+            if (stats == null) {
+                if (shapes.size() >= maxShapes) {
+                    evictCheapest();
+                }
+                stats = new ShapeStats();
+                shapes.put(shape, stats);
+            }
+            stats.add(elapsedMillis);
+            planWanted = explain && !stats.planRequested && isQuery(shape);
+            stats.planRequested |= planWanted;
+        }
+        Explainer planner = planWanted ? explainer : null;
+        writer.execute(() -> write(shape, elapsedMillis, batchSize, success, planner));
+    }
+
+    /**
+     * The {@code limit} shapes with the slowest single execution.
+     */
+    public List<SlowQueryDto> top(int limit) {
+        List<SlowQueryDto> top;
+        synchronized (shapes) {
+            top = shapes.entrySet().stream()
+                    .map(entry -> entry.getValue().toDto(entry.getKey()))
+                    .collect(Collectors.toCollection(ArrayList::new));
+        }
+        return top.stream()
+                .sorted(Comparator.comparing(SlowQueryDto::getMaxMillis).reversed()
+                        .thenComparing(Comparator.comparing(SlowQueryDto::getTotalMillis).reversed()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void close() {
+        writer.shutdown();
+    }
+
+    private void write(String shape, long elapsedMillis, int batchSize, boolean success, Explainer planner) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("at", Instant.now().toString());
+        entry.put("elapsedMs", elapsedMillis);
+        entry.put("batchSize", batchSize);
+        entry.put("success", success);
+        entry.put("sql", shape);
+        if (planner != null) {
+            try {
+                String plan = SqlShapes.redactPlan(planner.explain());
+                synchronized (shapes) {
+                    ShapeStats stats = shapes.get(shape);
+                    if (stats != null) {
+                        stats.plan = plan;
+                    }
+                }
+                entry.put("plan", plan);
+            } catch (SQLException | RuntimeException e) {
+                log.debug("Could not explain {}", shape, e);
+            }
+        }
+        try {
+            log.warn(objectMapper.writeValueAsString(entry));
+        } catch (JsonProcessingException e) {
+            log.warn("Slow query ({} ms): {}", elapsedMillis, shape);
+        }
+    }
+
+    private void evictCheapest() {
+        shapes.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().totalMillis))
+                .map(Map.Entry::getKey)
+                .ifPresent(shapes::remove);
+    }
+
+    private static boolean isQuery(String shape) {
+        String lower = shape.toLowerCase();
+        return lower.startsWith("select") || lower.startsWith("with");
+    }
+
+    /**
+     * Produces the raw plan of a recorded statement.
+     */
+    @FunctionalInterface
+    public interface Explainer {
+        String explain() throws SQLException;
+    }
+
+    private static class ShapeStats {
+        private long count;
+        private long totalMillis;
+        private long maxMillis;
+        private String plan;
+        private boolean planRequested;
+
+        void add(long elapsedMillis) {
+            count++;
+            totalMillis += elapsedMillis;
+            maxMillis = Math.max(maxMillis, elapsedMillis);
+        }
+
+        SlowQueryDto toDto(String shape) {
+            return SlowQueryDto.builder()
+                    .sql(shape)
+                    .count(count)
+                    .totalMillis(totalMillis)
+                    .maxMillis(maxMillis)
+                    .meanMillis((double) totalMillis / count)
+                    .plan(plan)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.pham.freshguard.sql;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL to its shape: literals become {@code ?}, IN lists collapse to one placeholder
+ * and whitespace is normalized, so statements that differ only in their values group together
+ * and no value reaches the log.
+ */
+public final class SqlShapes {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\b(IN)\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // Plans keep their costs and row estimates; only values compared against are removed.
+    private static final Pattern COMPARED_NUMBER =
+            Pattern.compile("((?:=|<>|!=|<=|>=|<|>)\\s+)-?\\d+(?:\\.\\d+)?(?![\\w.])");
+
+    private SqlShapes() {}
+
+    public static String normalize(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("$1 (?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+
+    /**
+     * Removes the values a plan was made for. Plans are explained with the statement's real
+     * parameters, which some databases print in filter conditions.
+     */
+    public static String redactPlan(String plan) {
+        String redacted = STRING_LITERAL.matcher(plan).replaceAll("?");
+        return COMPARED_NUMBER.matcher(redacted).replaceAll("$1?");
+    }
+}
@@ -0,0 +1,19 @@
+package com.pham.freshguard.sql;
+
+/**
+ * Counts the JDBC statements executed on each thread. Callers read the count before and
+ * after a piece of work; the difference is the number of statements it ran.
+ */
+public final class StatementCounter {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private StatementCounter() {}
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    static void add(int statements) {
+        COUNT.get()[0] += statements;
+    }
+}
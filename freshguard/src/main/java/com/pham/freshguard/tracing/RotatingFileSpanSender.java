@@ -0,0 +1,95 @@
+package com.pham.freshguard.tracing;
+
+import zipkin2.reporter.BytesMessageSender;
+import zipkin2.reporter.Encoding;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes span batches to a local file in Zipkin v2 JSON, one JSON array per line, so any
+ * line can be posted to a Zipkin collector as is. When the file would grow past
+ * {@code maxFileSize} it is rotated to {@code <file>.1}, older files move up one number and
+ * the oldest beyond {@code maxFiles} is deleted.
+ */
+public class RotatingFileSpanSender extends BytesMessageSender.Base {
+    private static final int MESSAGE_MAX_BYTES = 512 * 1024;
+
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private OutputStream out;
+    private long size;
+
+    public RotatingFileSpanSender(Path file, long maxFileSize, int maxFiles) {
+        super(Encoding.JSON);
+        if (maxFiles < 1) {
+            throw new IllegalArgumentException("At least one trace file must be kept");
+        }
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+    }
+
+    @Override
+    public int messageMaxBytes() {
+        return MESSAGE_MAX_BYTES;
+    }
+
+    @Override
+    public synchronized void send(List<byte[]> encodedSpans) throws IOException {
+        if (encodedSpans.isEmpty()) {
+            return;
+        }
+        byte[] message = encoding.encode(encodedSpans);
+        if (out == null) {
+            open();
+        }
+        if (size > 0 && size + message.length + 1 > maxFileSize) {
+            rotate();
+        }
+        out.write(message);
+        out.write('\n');
+        out.flush();
+        size += message.length + 1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        close();
+        Files.deleteIfExists(rotated(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            if (Files.exists(rotated(i))) {
+                Files.move(rotated(i), rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,79 @@
+package com.pham.freshguard.tracing;
+
+import com.pham.freshguard.sql.StatementCounter;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opens a child span of the current request for every controller, service, repository and
+ * mapper call, named after the class and method. Each span is tagged with the number of SQL
+ * statements run while it was open, including those of its child spans. Spans of requests
+ * that are not sampled are no-ops.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+    static final String STATEMENTS_TAG = "sql.statements";
+
+    private final Tracer tracer;
+    private final Map<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller", joinPoint.getTarget().getClass());
+    }
+
+    @Around("execution(* com.pham.freshguard.services.impl.*ServiceImpl.*(..))")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service", joinPoint.getTarget().getClass());
+    }
+
+    // Repositories are proxies, so they are named after the interface the proxy implements.
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository", joinPoint.getThis().getClass());
+    }
+
+    @Around("execution(* com.pham.freshguard.mappers.Mapper+.*(..))")
+    public Object traceMapper(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "mapper", joinPoint.getTarget().getClass());
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String component, Class<?> type) throws Throwable {
+        Span span = tracer.nextSpan()
+                .name(typeNames.computeIfAbsent(type, TracingAspect::typeName) + "." + joinPoint.getSignature().getName())
+                .tag("component", component)
+                .start();
+        long statements = StatementCounter.current();
+        try (Tracer.SpanInScope scope = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.tag(STATEMENTS_TAG, StatementCounter.current() - statements);
+            span.end();
+        }
+    }
+
+    private static String typeName(Class<?> type) {
+        return Arrays.stream(type.getInterfaces())
+                .filter(Repository.class::isAssignableFrom)
+                .findFirst()
+                .orElse(type)
+                .getSimpleName();
+    }
+}
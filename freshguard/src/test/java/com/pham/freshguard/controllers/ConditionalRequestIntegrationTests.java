@@ -0,0 +1,237 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+/**
+ * Versions are incremented when an update is flushed, so these tests commit their data
+ * instead of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class ConditionalRequestIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    private ItemEntity salt;
+    private ItemEntity pork;
+    private RecipeEntity roast;
+
+    @Autowired
+    public ConditionalRequestIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        pork = itemService.save(TestDataUtil.createTestItemEntityB());
+        roast = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.setRecipeIngredients(roast.getId(), List.of(salt.getId()));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatGetItemReturnsHttpStatus304WhenETagMatches() throws Exception {
+        String etag = etag("/api/items/" + salt.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + salt.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        ).andExpect(
+                MockMvcResultMatchers.status().isNotModified()
+        ).andExpect(
+                MockMvcResultMatchers.header().string(HttpHeaders.ETAG, etag)
+        ).andExpect(
+                MockMvcResultMatchers.content().string("")
+        );
+    }
+
+    @Test
+    public void testThatETagIsExposedToCrossOriginClients() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + salt.getId())
+                        .header(HttpHeaders.ORIGIN, "http://localhost:3000")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.header().string(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS,
+                        Matchers.containsString(HttpHeaders.ETAG))
+        );
+    }
+
+    @Test
+    public void testThatPatchItemReturnsHttpStatus412ForStaleETag() throws Exception {
+        String etag = etag("/api/items/" + salt.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/items/" + salt.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sea salt\"}")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.header().string(HttpHeaders.ETAG, Matchers.not(etag))
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/items/" + salt.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Rock salt\"}")
+        ).andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + salt.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.name").value("Sea salt")
+        );
+    }
+
+    @Test
+    public void testThatPutItemReturnsHttpStatus412ForStaleETag() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/items/" + salt.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"41\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sea salt\"}")
+        ).andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/items/" + salt.getId())
+                        .header(HttpHeaders.IF_MATCH, etag("/api/items/" + salt.getId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sea salt\"}")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.name").value("Sea salt")
+        );
+    }
+
+    @Test
+    public void testThatDeleteItemReturnsHttpStatus412ForStaleETag() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items/" + pork.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"41\"")
+        ).andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + pork.getId())
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items/" + pork.getId())
+                        .header(HttpHeaders.IF_MATCH, etag("/api/items/" + pork.getId()))
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + pork.getId())
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testThatRecipeETagChangesWithItsIngredients() throws Exception {
+        String etag = etag("/api/recipes/" + roast.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        ).andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        ItemEntity noSalt = new ItemEntity();
+        noSalt.setQuantity(0);
+        itemService.partialUpdate(salt.getId(), noSalt);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].quantity").value(0)
+        );
+    }
+
+    @Test
+    public void testThatPatchRecipeReturnsHttpStatus412AfterIngredientsChanged() throws Exception {
+        String etag = etag("/api/recipes/" + roast.getId());
+        recipeService.addIngredientToRecipe(roast.getId(), pork.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/recipes/" + roast.getId())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"servings\":8}")
+        ).andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/recipes/" + roast.getId())
+                        .header(HttpHeaders.IF_MATCH, etag("/api/recipes/" + roast.getId()))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"servings\":8}")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.servings").value(8)
+        );
+    }
+
+    @Test
+    public void testThatDeleteRecipeReturnsHttpStatus412ForStaleETag() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/recipes/" + roast.getId())
+                        .header(HttpHeaders.IF_MATCH, "W/\"41-0\"")
+        ).andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/recipes/" + roast.getId())
+                        .header(HttpHeaders.IF_MATCH, etag("/api/recipes/" + roast.getId()))
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(MockMvcRequestBuilders.get(path))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,158 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.dto.ConsumeResultDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stock is consumed with plain SQL updates in their own transactions, so these tests commit
+ * their data instead of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class ConsumeIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    private ItemEntity salt;
+    private ItemEntity pork;
+
+    @Autowired
+    public ConsumeIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        pork = itemService.save(TestDataUtil.createTestItemEntityB());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatConsumeItemDecrementsQuantity() throws Exception {
+        // Cache the item first, so the read below proves the cached copy was dropped.
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items/" + pork.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/" + pork.getId() + "/consume").param("amount", "2")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.status").value("CONSUMED")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.remainingQuantity").value(0)
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + pork.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.quantity").value(0)
+        );
+    }
+
+    @Test
+    public void testThatConsumeItemReturnsHttpStatus409ForInsufficientStock() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/" + salt.getId() + "/consume").param("amount", "2")
+        ).andExpect(
+                MockMvcResultMatchers.status().isConflict()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.status").value("INSUFFICIENT_STOCK")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.remainingQuantity").value(1)
+        );
+    }
+
+    @Test
+    public void testThatConsumeItemReturnsHttpStatus404ForMissingItem() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/" + (pork.getId() + 1000) + "/consume")
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testThatConsumeItemReturnsHttpStatus400ForInvalidAmount() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/" + salt.getId() + "/consume").param("amount", "0")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatConsumeRecipeReportsEachIngredient() throws Exception {
+        RecipeEntity roast = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.setRecipeIngredients(roast.getId(), List.of(salt.getId(), pork.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/recipes/" + roast.getId() + "/consume").param("amount", "2")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[?(@.itemId == " + salt.getId() + ")].status").value("INSUFFICIENT_STOCK")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[?(@.itemId == " + pork.getId() + ")].status").value("CONSUMED")
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/recipes/" + (roast.getId() + 1000) + "/consume")
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    public void testThatConcurrentConsumersNeverOverdrawStock() throws Exception {
+        ItemEntity flour = TestDataUtil.createTestItemEntityC();
+        flour.setQuantity(20);
+        Long flourId = itemService.save(flour).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<ConsumeResultDto>> consumers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            consumers.add(() -> itemService.consume(flourId, 1));
+        }
+        long consumed = 0;
+        for (Future<ConsumeResultDto> result : executor.invokeAll(consumers)) {
+            if (result.get().getStatus() == ConsumeResultDto.Status.CONSUMED) {
+                consumed++;
+            }
+        }
+        executor.shutdown();
+
+        assertThat(consumed).isEqualTo(20);
+        assertThat(itemService.findOne(flourId).orElseThrow().getQuantity()).isZero();
+    }
+}
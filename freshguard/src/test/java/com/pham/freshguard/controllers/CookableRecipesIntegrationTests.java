@@ -0,0 +1,162 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The cookable index is updated after commit, so these tests commit their data instead of
+ * running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class CookableRecipesIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    private ItemEntity salt;
+    private ItemEntity pork;
+    private ItemEntity milk;
+
+    @Autowired
+    public CookableRecipesIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        LocalDate today = LocalDate.now();
+        salt = itemService.save(item(TestDataUtil.createTestItemEntityA(), 1, today.plusMonths(6)));
+        pork = itemService.save(item(TestDataUtil.createTestItemEntityB(), 2, today.plusDays(1)));
+        milk = itemService.save(item(TestDataUtil.createTestItemEntityC(), 1, today.minusDays(1)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatCookableRecipesAreRankedByIngredientsInStock() throws Exception {
+        RecipeEntity soup = recipe(TestDataUtil.createTestRecipeEntityA(), salt, milk);
+        RecipeEntity roast = recipe(TestDataUtil.createTestRecipeEntityB(), salt, pork);
+        RecipeEntity pudding = recipe(TestDataUtil.createTestRecipeEntityC(), milk);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/cookable")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].recipe.id").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].recipe.ingredients.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].availableIngredients").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].totalIngredients").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].matchRatio").value(1.0)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].recipe.id").value(soup.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].matchRatio").value(0.5)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[?(@.recipe.id == " + pudding.getId() + ")]").isEmpty()
+        );
+    }
+
+    @Test
+    public void testThatCookableRecipesBreakTiesTowardSoonestExpiringItem() throws Exception {
+        RecipeEntity soup = recipe(TestDataUtil.createTestRecipeEntityA(), salt);
+        RecipeEntity roast = recipe(TestDataUtil.createTestRecipeEntityB(), pork);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/cookable").param("limit", "1")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].recipe.id").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].soonestExpiration").value(pork.getExpirationDate().toString())
+        );
+    }
+
+    @Test
+    public void testThatCookableRecipesFollowItemAndIngredientChanges() throws Exception {
+        RecipeEntity roast = recipe(TestDataUtil.createTestRecipeEntityB(), salt, pork);
+        ItemEntity noPork = new ItemEntity();
+        noPork.setQuantity(0);
+        itemService.partialUpdate(pork.getId(), noPork);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/cookable")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].availableIngredients").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].totalIngredients").value(2)
+        );
+
+        itemService.delete(pork.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/cookable")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].recipe.id").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].totalIngredients").value(1)
+        );
+
+        recipeService.removeIngredientFromRecipe(roast.getId(), salt.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/cookable")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(0)
+        );
+    }
+
+    @Test
+    public void testThatCookableRecipesReturnsHttpStatus400ForInvalidLimit() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/cookable").param("limit", "0")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private static ItemEntity item(ItemEntity item, int quantity, LocalDate expirationDate) {
+        item.setQuantity(quantity);
+        item.setExpirationDate(expirationDate);
+        return item;
+    }
+
+    private RecipeEntity recipe(RecipeEntity recipe, ItemEntity... ingredients) {
+        RecipeEntity savedRecipe = recipeService.save(recipe);
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(ingredients).stream()
+                .map(ItemEntity::getId)
+                .toList());
+        return savedRecipe;
+    }
+}
@@ -0,0 +1,131 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Notifications are published once the changing transaction has committed, so these tests
+ * commit their data instead of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class EventStreamIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    @Autowired
+    public EventStreamIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatItemAndRecipeChangesAreStreamed() throws Exception {
+        MockHttpServletResponse response = subscribe(null);
+
+        ItemEntity salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        RecipeEntity roast = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.setRecipeIngredients(roast.getId(), List.of(salt.getId()));
+        itemService.delete(salt.getId());
+
+        // Event name and data can arrive in separate writes, so wait for the whole event.
+        awaitContent(response, "event:item-deleted\ndata:{\"ids\":[" + salt.getId() + "]}");
+        assertThat(response.getContentAsString())
+                .contains("event:item-created\ndata:{\"ids\":[" + salt.getId() + "]}")
+                .contains("event:recipe-changed\ndata:{\"ids\":[" + roast.getId() + "]}")
+                .contains("event:item-deleted\ndata:{\"ids\":[" + salt.getId() + "]}");
+    }
+
+    @Test
+    public void testThatReconnectingClientsReplayMissedEvents() throws Exception {
+        MockHttpServletResponse first = subscribe(null);
+        ItemEntity salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        awaitContent(first, "event:item-created");
+        String lastEventId = first.getContentAsString().split("id:")[1].split("\n")[0];
+
+        ItemEntity pork = itemService.save(TestDataUtil.createTestItemEntityB());
+        MockHttpServletResponse second = subscribe(lastEventId);
+
+        awaitContent(second, "data:{\"ids\":[" + pork.getId() + "]}");
+        assertThat(second.getContentAsString())
+                .contains("data:{\"ids\":[" + pork.getId() + "]}")
+                .doesNotContain("data:{\"ids\":[" + salt.getId() + "]}");
+    }
+
+    @Test
+    public void testThatUpdatesThatChangeNothingAreNotStreamedAsCreates() throws Exception {
+        ItemEntity salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        MockHttpServletResponse response = subscribe(null);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/items/" + salt.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}")
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        awaitContent(response, "event:item-updated\ndata:{\"ids\":[" + salt.getId() + "]}");
+        assertThat(response.getContentAsString()).doesNotContain("event:item-created");
+    }
+
+    @Test
+    public void testThatEventIdsFromBeforeARestartReceiveReset() throws Exception {
+        MockHttpServletResponse response = subscribe("0-1");
+
+        awaitContent(response, "event:reset");
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/api/events");
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request)
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static void awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!response.getContentAsString().contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(response.getContentAsString()).contains(expected);
+    }
+}
@@ -1,7 +1,10 @@
 package com.pham.freshguard.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.pham.freshguard.TestDataUtil;
 import com.pham.freshguard.domain.entities.ItemEntity;
@@ -23,6 +26,11 @@ import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @ExtendWith(SpringExtension.class)
 @Transactional
@@ -90,6 +98,69 @@ public class ItemControllerIntegrationTests {
         );
     }
 
+    @Test
+    public void testThatCreateItemsBatchReturnsHttp201AndSavedItems() throws Exception {
+        ItemEntity itemEntityA = TestDataUtil.createTestItemEntityA();
+        ItemEntity itemEntityB = TestDataUtil.createTestItemEntityB();
+        String itemsJson = objectMapper.writeValueAsString(List.of(itemEntityA, itemEntityB));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(itemsJson)
+        ).andExpect(
+                MockMvcResultMatchers.status().isCreated()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").isNumber()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].name").value(itemEntityA.getName())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").isNumber()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].name").value(itemEntityB.getName())
+        );
+    }
+
+    @Test
+    public void testThatCreateItemsBatchDoesNotOverwriteExistingItems() throws Exception {
+        ItemEntity existing = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity itemEntity = TestDataUtil.createTestItemEntityB();
+        itemEntity.setId(existing.getId());
+        String itemsJson = objectMapper.writeValueAsString(List.of(itemEntity));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(itemsJson)
+        ).andExpect(
+                MockMvcResultMatchers.status().isCreated()
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + existing.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.name").value(existing.getName())
+        );
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        );
+    }
+
+    @Test
+    public void testThatCreateItemsBatchReturnsHttp400ForEmptyList() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/items/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+        ).andExpect(
+                MockMvcResultMatchers.status().isBadRequest()
+        );
+    }
+
     @Test
     public void testThatGetItemsReturnsHttpStatus200() throws Exception {
         mockMvc.perform(
@@ -123,6 +194,255 @@ public class ItemControllerIntegrationTests {
         );
     }
 
+    @Test
+    public void testThatGetItemsWithFieldsReturnsOnlyThoseFields() throws Exception {
+        ItemEntity savedItem = itemService.save(TestDataUtil.createTestItemEntityA());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items?fields=name,quantity&limit=10")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].name").value("Salt")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].quantity").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").doesNotExist()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].category").doesNotExist()
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + savedItem.getId() + "?fields=id,location")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.id").value(savedItem.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.location").value("Pantry")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.name").doesNotExist()
+        );
+    }
+
+    @Test
+    public void testThatGetItemsServesCborAndSmileWhenAccepted() throws Exception {
+        ItemEntity savedItem = itemService.save(TestDataUtil.createTestItemEntityA());
+
+        byte[] cbor = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items")
+                        .accept(MediaType.APPLICATION_CBOR)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR)
+        ).andReturn().getResponse().getContentAsByteArray();
+        JsonNode cborItem = new CBORMapper().readTree(cbor).get(0);
+        assertThat(cborItem.get("id").asLong()).isEqualTo(savedItem.getId());
+        assertThat(cborItem.get("name").asText()).isEqualTo("Salt");
+        assertThat(cborItem.get("expirationDate").asText()).isEqualTo(savedItem.getExpirationDate().toString());
+
+        byte[] smile = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + savedItem.getId() + "?fields=id,location")
+                        .accept("application/x-jackson-smile")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.content().contentType("application/x-jackson-smile")
+        ).andReturn().getResponse().getContentAsByteArray();
+        JsonNode smileItem = new SmileMapper().readTree(smile);
+        assertThat(smileItem.get("location").asText()).isEqualTo("Pantry");
+        assertThat(smileItem.has("name")).isFalse();
+    }
+
+    @Test
+    public void testThatGetItemsWithUnknownFieldReturnsHttpStatus400() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items?fields=name,version")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expired?fields=")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatGetItemsWithLimitReturnsFirstPageAndNextCursor() throws Exception {
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        itemService.save(TestDataUtil.createTestItemEntityC());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items?limit=2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedItemA.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(savedItemB.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().exists("X-Next-Cursor")
+        );
+    }
+
+    @Test
+    public void testThatGetItemsWithCursorReturnsNextPage() throws Exception {
+        itemService.save(TestDataUtil.createTestItemEntityA());
+        itemService.save(TestDataUtil.createTestItemEntityB());
+        ItemEntity savedItemC = itemService.save(TestDataUtil.createTestItemEntityC());
+
+        MvcResult firstPage = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items?limit=2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andReturn();
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items")
+                        .param("after", cursor)
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedItemC.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor")
+        );
+    }
+
+    @Test
+    public void testThatGetItemsWithInvalidCursorReturnsHttpStatus400() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items?after=not-a-cursor")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatGetExpiringItemsReturnsItemsWithinWindowSortedByExpirationDate() throws Exception {
+        LocalDate today = LocalDate.now();
+        ItemEntity later = TestDataUtil.createTestItemEntityA();
+        later.setExpirationDate(today.plusDays(2));
+        ItemEntity savedLater = itemService.save(later);
+        ItemEntity sooner = TestDataUtil.createTestItemEntityB();
+        sooner.setExpirationDate(today);
+        ItemEntity savedSooner = itemService.save(sooner);
+        ItemEntity outsideWindow = TestDataUtil.createTestItemEntityC();
+        outsideWindow.setExpirationDate(today.plusDays(10));
+        itemService.save(outsideWindow);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expiring?within=P3D")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedSooner.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(savedLater.getId())
+        );
+    }
+
+    @Test
+    public void testThatGetExpiringItemsFiltersByCategoryAndLocation() throws Exception {
+        LocalDate today = LocalDate.now();
+        ItemEntity pork = TestDataUtil.createTestItemEntityB();
+        pork.setExpirationDate(today.plusDays(1));
+        ItemEntity savedPork = itemService.save(pork);
+        ItemEntity milk = TestDataUtil.createTestItemEntityC();
+        milk.setExpirationDate(today.plusDays(1));
+        itemService.save(milk);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expiring?category=Meat&location=Pantry")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedPork.getId())
+        );
+    }
+
+    @Test
+    public void testThatGetExpiringItemsPagesWithCursor() throws Exception {
+        LocalDate today = LocalDate.now();
+        ItemEntity first = TestDataUtil.createTestItemEntityA();
+        first.setExpirationDate(today.plusDays(1));
+        itemService.save(first);
+        ItemEntity second = TestDataUtil.createTestItemEntityB();
+        second.setExpirationDate(today.plusDays(1));
+        ItemEntity savedSecond = itemService.save(second);
+
+        MvcResult firstPage = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expiring?limit=1")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.header().exists("X-Next-Cursor")
+        ).andReturn();
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expiring")
+                        .param("limit", "1")
+                        .param("after", firstPage.getResponse().getHeader("X-Next-Cursor"))
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedSecond.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor")
+        );
+    }
+
+    @Test
+    public void testThatGetExpiringItemsReturnsHttpStatus400ForInvalidPeriod() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expiring?within=3days")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatGetExpiredItemsReturnsOnlyExpiredItems() throws Exception {
+        LocalDate today = LocalDate.now();
+        ItemEntity expired = TestDataUtil.createTestItemEntityB();
+        expired.setExpirationDate(today.minusDays(1));
+        ItemEntity savedExpired = itemService.save(expired);
+        ItemEntity fresh = TestDataUtil.createTestItemEntityC();
+        fresh.setExpirationDate(today);
+        itemService.save(fresh);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/expired")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedExpired.getId())
+        );
+    }
+
+    @Test
+    public void testThatExportItemsReturnsNdjsonStream() throws Exception {
+        MvcResult result = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/export")
+        ).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.asyncDispatch(result)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON)
+        );
+    }
+
     @Test
     public void testThatGetItemReturnsHttpStatus200WhenItemExist() throws Exception {
         ItemEntity itemEntity = TestDataUtil.createTestItemEntityA();
@@ -287,6 +607,101 @@ public class ItemControllerIntegrationTests {
         ).andExpect(MockMvcResultMatchers.status().isNoContent());
     }
 
+    @Test
+    public void testThatDeleteItemRemovesItFromRecipes() throws Exception {
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(savedItemA.getId(), savedItemB.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items/" + savedItemA.getId())
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + savedItemA.getId())
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].id").value(savedItemB.getId())
+        );
+    }
+
+    @Test
+    public void testThatDeleteItemsByIdsDeletesOnlyThoseItems() throws Exception {
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        ItemEntity savedItemC = itemService.save(TestDataUtil.createTestItemEntityC());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(savedItemA.getId(), savedItemC.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items")
+                        .param("ids", savedItemA.getId() + "," + savedItemB.getId())
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedItemC.getId())
+        );
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        );
+    }
+
+    @Test
+    public void testThatDeleteItemsExpiredBeforeDeletesOnlyExpiredItems() throws Exception {
+        itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        itemService.save(TestDataUtil.createTestItemEntityC());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.addIngredientToRecipe(savedRecipe.getId(), savedItemB.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items")
+                        .param("expiredBefore", "2025-07-23")
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[?(@.id == " + savedItemB.getId() + ")]").isEmpty()
+        );
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(0)
+        );
+    }
+
+    @Test
+    public void testThatDeleteItemsReturnsHttpStatus400WithoutExactlyOneFilter() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items")
+                        .param("ids", "1")
+                        .param("expiredBefore", "2025-07-23")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items")
+                        .param("expiredBefore", "not-a-date")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
     @Test
     public void testThatGetItemRecipesReturnsHttpStatus200ForExistingItem() throws Exception {
         ItemEntity item = TestDataUtil.createTestItemEntityA();
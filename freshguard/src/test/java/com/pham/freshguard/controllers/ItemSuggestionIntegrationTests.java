@@ -0,0 +1,119 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+/**
+ * The suggestion index applies item changes once their transaction has committed, so these
+ * tests commit their data instead of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class ItemSuggestionIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    private ItemEntity salt;
+
+    @Autowired
+    public ItemSuggestionIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        itemService.save(TestDataUtil.createTestItemEntityB());
+        itemService.save(TestDataUtil.createTestItemEntityB());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatSuggestReturnsNamesAndCategoriesByFrequency() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "p")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].text").value("Pork")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].count").value(2)
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "spi")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].text").value("Spices")
+        );
+    }
+
+    @Test
+    public void testThatSuggestToleratesOneTypo() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "prok")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].text").value("Pork")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].distance").value(1)
+        );
+    }
+
+    @Test
+    public void testThatUpdatedAndDeletedItemsAreReflected() throws Exception {
+        ItemEntity seaSalt = new ItemEntity();
+        seaSalt.setName("Sea salt");
+        itemService.partialUpdate(salt.getId(), seaSalt);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "sea")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].text").value("Sea salt")
+        );
+
+        itemService.delete(salt.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "s")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(0)
+        );
+    }
+
+    @Test
+    public void testThatSuggestReturnsHttpStatus400ForBlankPrefixOrInvalidLimit() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/suggest").param("prefix", "po").param("limit", "0")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,87 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Transactional
+@Rollback
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsIntegrationTests {
+    private final ItemService itemService;
+    private final RecipeService recipeService;
+    private final MockMvc mockMvc;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public MetricsIntegrationTests(MockMvc mockMvc, ItemService itemService, RecipeService recipeService,
+                                   MeterRegistry meterRegistry) {
+        this.mockMvc = mockMvc;
+        this.itemService = itemService;
+        this.recipeService = recipeService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @BeforeEach
+    void setUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatControllerAndServiceMethodsAreTimed() throws Exception {
+        itemService.save(TestDataUtil.createTestItemEntityA());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertThat(meterRegistry.get("freshguard.controller")
+                .tag("class", ItemController.class.getName())
+                .tag("method", "getItems")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("freshguard.service")
+                .tag("method", "findAll")
+                .timer().count()).isPositive();
+    }
+
+    @Test
+    public void testThatPrometheusEndpointExposesLatencyAndHibernateMetrics() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/recipes"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/actuator/prometheus")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.content().string(containsString(
+                        "freshguard_controller_seconds_bucket{class=\"" + RecipeController.class.getName()))
+        ).andExpect(
+                MockMvcResultMatchers.content().string(containsString("hibernate_statements_total"))
+        ).andExpect(
+                MockMvcResultMatchers.content().string(containsString("hibernate_second_level_cache_requests_total"))
+        ).andExpect(
+                MockMvcResultMatchers.content().string(containsString("hikaricp_connections_acquire_seconds_bucket"))
+        );
+    }
+}
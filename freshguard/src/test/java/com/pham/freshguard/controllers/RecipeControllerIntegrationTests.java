@@ -19,6 +19,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.Rollback;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
@@ -119,6 +120,133 @@ public class RecipeControllerIntegrationTests {
         );
     }
 
+    @Test
+    public void testThatGetRecipesWithFieldsReturnsOnlyThoseFields() throws Exception {
+        ItemEntity salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(salt.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes?fields=id,name,prepTimeMinutes")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedRecipe.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].prepTimeMinutes").value(20)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].description").doesNotExist()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].instructions").doesNotExist()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients").doesNotExist()
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes?fields=name&expand=ingredients&limit=10")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].name").value("Soup")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].servings").doesNotExist()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients[0].name").value("Salt")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients[0].location").value("Pantry")
+        );
+    }
+
+    @Test
+    public void testThatGetRecipeWithEmptyExpandOmitsIngredients() throws Exception {
+        ItemEntity salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(salt.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId() + "?expand=")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.instructions").value("Boil water then add seasonings")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients").doesNotExist()
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId() + "?expand=steps")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatGetRecipesWithLimitReturnsFirstPageAndNextCursor() throws Exception {
+        RecipeEntity savedRecipeA = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        RecipeEntity savedRecipeB = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.save(TestDataUtil.createTestRecipeEntityC());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes?limit=2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedRecipeA.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(savedRecipeB.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().exists("X-Next-Cursor")
+        );
+    }
+
+    @Test
+    public void testThatGetRecipesWithCursorReturnsNextPage() throws Exception {
+        recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        RecipeEntity savedRecipeC = recipeService.save(TestDataUtil.createTestRecipeEntityC());
+
+        MvcResult firstPage = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes?limit=2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andReturn();
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes")
+                        .param("after", cursor)
+                        .param("limit", "2")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(savedRecipeC.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor")
+        );
+    }
+
+    @Test
+    public void testThatGetRecipesWithNonPositiveLimitReturnsHttpStatus400() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes?limit=0")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatExportRecipesReturnsNdjsonStream() throws Exception {
+        MvcResult result = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/export")
+        ).andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.asyncDispatch(result)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON)
+        );
+    }
+
     @Test
     public void testThatGetRecipeReturnsHttpStatus200WhenRecipeExist() throws Exception {
         RecipeEntity recipeEntity = TestDataUtil.createTestRecipeEntityA();
@@ -161,6 +289,34 @@ public class RecipeControllerIntegrationTests {
         ).andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    public void testThatGetRecipeBodyReturnsTextColumns() throws Exception {
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId() + "/body")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.id").value(savedRecipe.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.description").value("Traditional chicken soup")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.instructions").value("Boil water then add seasonings")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.name").doesNotExist()
+        );
+    }
+
+    @Test
+    public void testThatGetRecipeBodyReturnsHttpStatus404WhenNoRecipeExists() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/9999/body")
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     public void testThatFullUpdateRecipeReturnsHttpStatus404WhenNoRecipeExists() throws Exception {
         RecipeEntity recipe = TestDataUtil.createTestRecipeEntityA();
@@ -418,6 +574,100 @@ public class RecipeControllerIntegrationTests {
 
     }
 
+    @Test
+    public void testThatAddIngredientToRecipeIsIdempotent() throws Exception {
+        ItemEntity savedItem = itemService.save(TestDataUtil.createTestItemEntityA());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.addIngredientToRecipe(savedRecipe.getId(), savedItem.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/recipes/" + savedRecipe.getId() + "/ingredients/" + savedItem.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        );
+    }
+
+    @Test
+    public void testThatRemoveIngredientFromRecipeRemovesOnlyThatIngredient() throws Exception {
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(savedItemA.getId(), savedItemB.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/recipes/" + savedRecipe.getId() + "/ingredients/" + savedItemA.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].id").value(savedItemB.getId())
+        );
+    }
+
+    @Test
+    public void testThatSetIngredientsReplacesExistingIngredients() throws Exception {
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        ItemEntity savedItemC = itemService.save(TestDataUtil.createTestItemEntityC());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(savedItemA.getId(), savedItemB.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/recipes/" + savedRecipe.getId() + "/ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(savedItemB.getId(), savedItemC.getId())))
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[?(@.id == " + savedItemA.getId() + ")]").isEmpty()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[?(@.id == " + savedItemC.getId() + ")]").isNotEmpty()
+        );
+    }
+
+    @Test
+    public void testThatSetIngredientsLeavesRecipeUnchangedWhenAnItemIsMissing() throws Exception {
+        ItemEntity savedItem = itemService.save(TestDataUtil.createTestItemEntityA());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(savedItem.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/recipes/" + savedRecipe.getId() + "/ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[9999]")
+        ).andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + savedRecipe.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].id").value(savedItem.getId())
+        );
+    }
+
+    @Test
+    public void testThatSetIngredientsWithEmptyListClearsIngredients() throws Exception {
+        ItemEntity savedItem = itemService.save(TestDataUtil.createTestItemEntityA());
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(savedItem.getId()));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/recipes/" + savedRecipe.getId() + "/ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(0)
+        );
+    }
+
     @Test
     public void testThatFindByIngredientsReturnsHttpStatus200() throws Exception {
         RecipeEntity recipe = TestDataUtil.createTestRecipeEntityA();
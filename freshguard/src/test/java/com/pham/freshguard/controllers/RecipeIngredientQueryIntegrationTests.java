@@ -0,0 +1,183 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.index.IndexSynchronizer;
+import com.pham.freshguard.index.IngredientIndex;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+/**
+ * The ingredient index is updated after commit, so these tests commit their data instead of
+ * running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class RecipeIngredientQueryIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final IngredientIndex ingredientIndex;
+    private final IndexSynchronizer indexSynchronizer;
+    private final MockMvc mockMvc;
+
+    private ItemEntity salt;
+    private ItemEntity pork;
+    private ItemEntity milk;
+    private RecipeEntity soup;
+    private RecipeEntity roast;
+    private RecipeEntity pudding;
+
+    @Autowired
+    public RecipeIngredientQueryIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService,
+                                                 IngredientIndex ingredientIndex, IndexSynchronizer indexSynchronizer) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+        this.ingredientIndex = ingredientIndex;
+        this.indexSynchronizer = indexSynchronizer;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        pork = itemService.save(TestDataUtil.createTestItemEntityB());
+        milk = itemService.save(TestDataUtil.createTestItemEntityC());
+        soup = recipe(TestDataUtil.createTestRecipeEntityA(), salt, pork);
+        roast = recipe(TestDataUtil.createTestRecipeEntityB(), salt, pork, milk);
+        pudding = recipe(TestDataUtil.createTestRecipeEntityC(), milk);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatFindByIngredientsMatchesAllOf() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .param("all", salt.getId() + "," + pork.getId())
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(soup.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(roast.getId())
+        );
+    }
+
+    @Test
+    public void testThatFindByIngredientsMatchesAnyOfExceptNoneOf() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .param("any", pork.getId() + "," + milk.getId())
+                        .param("none", salt.getId().toString())
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(pudding.getId())
+        );
+    }
+
+    @Test
+    public void testThatFindByIngredientsFollowsIngredientEdits() throws Exception {
+        recipeService.removeIngredientFromRecipe(roast.getId(), pork.getId());
+        itemService.delete(salt.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .param("none", pork.getId().toString())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(pudding.getId())
+        );
+    }
+
+    @Test
+    public void testThatIndexIsRebuiltFromTheDatabase() throws Exception {
+        ingredientIndex.clear();
+        indexSynchronizer.rebuild();
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .param("all", milk.getId().toString())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        );
+    }
+
+    @Test
+    public void testThatFindByIngredientsPagesWithCursor() throws Exception {
+        String cursor = mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .param("any", salt.getId() + "," + milk.getId())
+                        .param("limit", "2")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(soup.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().exists("X-Next-Cursor")
+        ).andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .param("any", salt.getId() + "," + milk.getId())
+                        .param("limit", "2")
+                        .param("after", cursor)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(pudding.getId())
+        ).andExpect(
+                MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor")
+        );
+    }
+
+    @Test
+    public void testThatFindByIngredientsReturnsHttpStatus400WithoutIngredients() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private RecipeEntity recipe(RecipeEntity recipe, ItemEntity... ingredients) {
+        RecipeEntity savedRecipe = recipeService.save(recipe);
+        recipeService.setRecipeIngredients(savedRecipe.getId(), List.of(ingredients).stream()
+                .map(ItemEntity::getId)
+                .toList());
+        return savedRecipe;
+    }
+}
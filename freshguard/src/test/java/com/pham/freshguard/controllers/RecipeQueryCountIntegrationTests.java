@@ -0,0 +1,208 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.transaction.Transactional;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+@Transactional
+@Rollback
+@AutoConfigureMockMvc
+public class RecipeQueryCountIntegrationTests {
+    private static final int RECIPE_COUNT = 20;
+
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+    private final EntityManager entityManager;
+    private final Statistics statistics;
+
+    private final List<ItemEntity> items = new ArrayList<>();
+
+    @Autowired
+    public RecipeQueryCountIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService,
+                                            EntityManager entityManager, EntityManagerFactory entityManagerFactory) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+        this.entityManager = entityManager;
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void setUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+
+        items.add(itemService.save(TestDataUtil.createTestItemEntityA()));
+        items.add(itemService.save(TestDataUtil.createTestItemEntityB()));
+        items.add(itemService.save(TestDataUtil.createTestItemEntityC()));
+        for (int i = 0; i < RECIPE_COUNT; i++) {
+            RecipeEntity recipe = TestDataUtil.createTestRecipeEntityA();
+            recipe.setName("Recipe " + i);
+            recipe.setIngredients(new HashSet<>(Set.copyOf(items)));
+            recipeService.save(recipe);
+        }
+
+        // Start every request from an empty persistence context so lazy loads are counted.
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    public void testThatListRecipesLoadsIngredientsInOneStatement() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(RECIPE_COUNT)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients.length()").value(3)
+        );
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatRecipePageLoadsIngredientsInTwoStatements() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes").param("limit", "5")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(5)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[4].ingredients.length()").value(3)
+        );
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testThatRecipeCardPageSkipsIngredientsAndLoadsInOneStatement() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes")
+                        .param("fields", "id,name,prepTimeMinutes")
+                        .param("limit", "5")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(5)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients").doesNotExist()
+        );
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatListEndpointsLoadNoEntities() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/recipes"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/recipes").param("limit", "5"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items/" + items.get(0).getId() + "/recipes"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    public void testThatItemRecipesLoadsIngredientsInTwoStatements() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/items/" + items.get(0).getId() + "/recipes")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(RECIPE_COUNT)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients.length()").value(3)
+        );
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void testThatFindByIngredientsLoadsIngredientsInOneStatement() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/find-by-ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + items.get(1).getId() + "]")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(RECIPE_COUNT)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].ingredients.length()").value(3)
+        );
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatRecipesLoadedThroughItemsLeaveTextUnloaded() throws Exception {
+        entityManager.getEntityManagerFactory().getCache().evictAll();
+
+        ItemEntity item = entityManager.find(ItemEntity.class, items.get(0).getId());
+        RecipeEntity recipe = item.getRecipes().iterator().next();
+
+        assertThat(Hibernate.isPropertyInitialized(recipe, "description")).isFalse();
+        assertThat(Hibernate.isPropertyInitialized(recipe, "instructions")).isFalse();
+        assertThat(recipe.getDescription()).isEqualTo("Traditional chicken soup");
+        assertThat(Hibernate.isPropertyInitialized(recipe, "instructions")).isTrue();
+    }
+
+    @Test
+    public void testThatSetIngredientsOnLargeRecipeWritesOnlyChangedLinks() throws Exception {
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            itemIds.add(itemService.save(TestDataUtil.createTestItemEntityA()).getId());
+        }
+        Long recipeId = recipeService.save(TestDataUtil.createTestRecipeEntityB()).getId();
+        recipeService.setRecipeIngredients(recipeId, itemIds);
+        List<Long> swapped = new ArrayList<>(itemIds.subList(1, itemIds.size()));
+        swapped.add(items.get(0).getId());
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        recipeService.setRecipeIngredients(recipeId, swapped);
+
+        // existence checks, current links, one delete, one insert, reload
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+    }
+}
@@ -0,0 +1,122 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+/**
+ * The search index applies recipe changes once their transaction has committed, so these
+ * tests commit their data instead of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class RecipeSearchIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    private RecipeEntity soup;
+    private RecipeEntity pasta;
+
+    @Autowired
+    public RecipeSearchIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        soup = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        pasta = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.save(TestDataUtil.createTestRecipeEntityC());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatSearchMatchesStemmedTerms() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/search").param("q", "boiling seasoning")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(soup.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].name").value("Soup")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[1].id").value(pasta.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        );
+    }
+
+    @Test
+    public void testThatNameMatchesRankAboveInstructionMatches() throws Exception {
+        RecipeEntity broth = TestDataUtil.createTestRecipeEntityA();
+        broth.setName("Bone broth");
+        broth.setDescription("Slow simmered stock");
+        broth.setInstructions("Roast bones, cover with water and simmer for a day, unlike pasta");
+        recipeService.save(broth);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/search").param("q", "pasta")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(2)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].id").value(pasta.getId())
+        );
+    }
+
+    @Test
+    public void testThatUpdatedAndDeletedRecipesAreReflected() throws Exception {
+        RecipeEntity renamed = new RecipeEntity();
+        renamed.setName("Chowder");
+        recipeService.partialUpdate(soup.getId(), renamed);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/search").param("q", "chowder")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[0].name").value("Chowder")
+        );
+
+        recipeService.delete(soup.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/search").param("q", "chowder")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.length()").value(0)
+        );
+    }
+
+    @Test
+    public void testThatSearchReturnsHttpStatus400ForBlankQueryOrInvalidLimit() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/search").param("q", " ")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/search").param("q", "soup").param("limit", "0")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+}
@@ -0,0 +1,182 @@
+package com.pham.freshguard.controllers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.dto.CacheStatisticsDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.CacheStatisticsService;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level cache entries are written when a transaction commits, so these tests commit
+ * their data instead of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class SecondLevelCacheIntegrationTests {
+    private static final String RECIPE_REGION = "com.pham.freshguard.domain.entities.RecipeEntity";
+    private static final String INGREDIENTS_REGION = RECIPE_REGION + ".ingredients";
+
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final MockMvc mockMvc;
+
+    private ItemEntity salt;
+    private ItemEntity pork;
+    private RecipeEntity roast;
+
+    @Autowired
+    public SecondLevelCacheIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService,
+                                           CacheStatisticsService cacheStatisticsService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanUp();
+        salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        pork = itemService.save(TestDataUtil.createTestItemEntityB());
+        roast = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.setRecipeIngredients(roast.getId(), List.of(salt.getId()));
+
+        // Load the recipe and its ingredient set into the cache.
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        );
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatRecipeReadsAreServedFromCache() throws Exception {
+        long recipeHits = hitCount(RECIPE_REGION);
+        long ingredientHits = hitCount(INGREDIENTS_REGION);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].id").value(salt.getId())
+        );
+
+        assertThat(hitCount(RECIPE_REGION)).isGreaterThan(recipeHits);
+        assertThat(hitCount(INGREDIENTS_REGION)).isGreaterThan(ingredientHits);
+    }
+
+    @Test
+    public void testThatCacheStatisticsCanBeRetrieved() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/admin/cache")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[?(@.region == '" + INGREDIENTS_REGION + "')].hitCount").exists()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$[?(@.region == '" + RECIPE_REGION + "')].evictionCount").exists()
+        );
+    }
+
+    @Test
+    public void testThatAddedAndRemovedIngredientsAreNotServedStale() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/api/recipes/" + roast.getId() + "/ingredients/" + pork.getId())
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(2)
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/recipes/" + roast.getId() + "/ingredients/" + salt.getId())
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].id").value(pork.getId())
+        );
+    }
+
+    @Test
+    public void testThatReplacedIngredientsAreNotServedStale() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/recipes/" + roast.getId() + "/ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + pork.getId() + "]")
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].id").value(pork.getId())
+        );
+    }
+
+    @Test
+    public void testThatUpdatedAndDeletedItemsAreNotServedStale() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/items/" + salt.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sea salt\"}")
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients[0].name").value("Sea salt")
+        );
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.delete("/api/items/" + salt.getId())
+        ).andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/recipes/" + roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.ingredients.length()").value(0)
+        );
+    }
+
+    private long hitCount(String region) {
+        return cacheStatisticsService.findAll().stream()
+                .filter(statistics -> statistics.getRegion().equals(region))
+                .map(CacheStatisticsDto::getHitCount)
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,101 @@
+package com.pham.freshguard.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every statement counts as slow here. Plans are captured on a background thread with a
+ * connection of their own, so these tests commit their data instead of running in a
+ * rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest(properties = {"freshguard.slow-query.threshold=0ms", "freshguard.slow-query.explain=true"})
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class SlowQueryIntegrationTests {
+    private static final String ITEM_LIST = "/select .* from items ie1_0 order by .*/";
+
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+
+    @Autowired
+    public SlowQueryIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatSlowQueriesAreGroupedByShapeWithoutValues() throws Exception {
+        itemService.save(TestDataUtil.createTestItemEntityA());
+        int before = itemListCount();
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        assertThat(itemListCount()).isEqualTo(before + 2);
+        assertThat(slowQueries()).doesNotContain("Salt");
+    }
+
+    @Test
+    public void testThatPlansAreCapturedForQueries() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/items"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        List<String> plans;
+        do {
+            Thread.sleep(10);
+            plans = JsonPath.read(slowQueries(), "$[?(@.sql =~ " + ITEM_LIST + " && @.plan)].plan");
+        } while (plans.isEmpty() && System.nanoTime() < deadline);
+
+        assertThat(plans).isNotEmpty();
+    }
+
+    @Test
+    public void testThatSlowQueriesReturnsHttpStatus400ForNonPositiveLimit() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/admin/slow-queries").param("limit", "0")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private int itemListCount() throws Exception {
+        List<Integer> counts = JsonPath.read(slowQueries(), "$[?(@.sql =~ " + ITEM_LIST + ")].count");
+        return counts.isEmpty() ? 0 : counts.get(0);
+    }
+
+    private String slowQueries() throws Exception {
+        return mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/admin/slow-queries").param("limit", "500")
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,241 @@
+package com.pham.freshguard.controllers;
+
+import com.jayway.jsonpath.JsonPath;
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Changes are logged as their transaction commits, so these tests commit their data instead
+ * of running in a rolled-back transaction, and clean up afterwards.
+ */
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+public class SyncIntegrationTests {
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+    private final TransactionTemplate transactionTemplate;
+
+    private ItemEntity salt;
+    private RecipeEntity roast;
+    private String token;
+
+    @Autowired
+    public SyncIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService,
+                                PlatformTransactionManager transactionManager) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        cleanUp();
+        salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        roast = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        recipeService.setRecipeIngredients(roast.getId(), List.of(salt.getId()));
+        token = latestToken();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatSyncReturnsOnlyChangesSinceToken() throws Exception {
+        ItemEntity pork = itemService.save(TestDataUtil.createTestItemEntityB());
+
+        String next = JsonPath.read(mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", token)
+        ).andExpect(
+                MockMvcResultMatchers.status().isOk()
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.items.length()").value(1)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.items[0].id").value(pork.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.recipes.length()").value(0)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.deletedItemIds.length()").value(0)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.hasMore").value(false)
+        ).andReturn().getResponse().getContentAsString(), "$.token");
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", next)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.items.length()").value(0)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.token").value(next)
+        );
+    }
+
+    @Test
+    public void testThatDeletesAreReturnedAsTombstones() throws Exception {
+        recipeService.delete(roast.getId());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", token)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.recipes.length()").value(0)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.deletedRecipeIds[0]").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.deletedItemIds.length()").value(0)
+        );
+    }
+
+    @Test
+    public void testThatItemChangesAlsoReturnRecipesUsingThem() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/api/items/" + salt.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Sea salt\"}")
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", token)
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.items[0].name").value("Sea salt")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.recipes[0].id").value(roast.getId())
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.recipes[0].ingredients[0].name").value("Sea salt")
+        );
+    }
+
+    @Test
+    public void testThatSyncPagesThroughChanges() throws Exception {
+        itemService.save(TestDataUtil.createTestItemEntityB());
+        itemService.save(TestDataUtil.createTestItemEntityC());
+
+        String next = JsonPath.read(mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", token).param("limit", "1")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.items[0].name").value("Pork")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.hasMore").value(true)
+        ).andReturn().getResponse().getContentAsString(), "$.token");
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", next).param("limit", "1")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.items[0].name").value("Milk")
+        ).andExpect(
+                MockMvcResultMatchers.jsonPath("$.hasMore").value(false)
+        );
+    }
+
+    @Test
+    public void testThatSyncReturnsHttpStatus400ForMalformedToken() throws Exception {
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/api/sync").param("since", "bm90LWEtbnVtYmVy")
+        ).andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    public void testThatChangesCommittedOutOfSequenceOrderAreNotSkipped() throws Exception {
+        CountDownLatch firstLogged = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first transaction takes its sequence number, then holds off committing.
+            Future<ItemEntity> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                ItemEntity pork = itemService.save(TestDataUtil.createTestItemEntityB());
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        firstLogged.countDown();
+                        awaitQuietly(releaseFirst);
+                    }
+                });
+                return pork;
+            }));
+            assertThat(firstLogged.await(10, TimeUnit.SECONDS)).isTrue();
+            Future<ItemEntity> second = executor.submit(() -> itemService.save(TestDataUtil.createTestItemEntityC()));
+            try {
+                second.get(1, TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                // Waiting for the first transaction to commit.
+            }
+
+            String content = mockMvc.perform(MockMvcRequestBuilders.get("/api/sync").param("since", token))
+                    .andReturn().getResponse().getContentAsString();
+            List<Integer> synced = new ArrayList<>(JsonPath.read(content, "$.items[*].id"));
+            String next = JsonPath.read(content, "$.token");
+            releaseFirst.countDown();
+            ItemEntity pork = first.get(10, TimeUnit.SECONDS);
+            ItemEntity milk = second.get(10, TimeUnit.SECONDS);
+
+            content = mockMvc.perform(MockMvcRequestBuilders.get("/api/sync").param("since", next))
+                    .andReturn().getResponse().getContentAsString();
+            synced.addAll(JsonPath.read(content, "$.items[*].id"));
+            assertThat(synced).contains(pork.getId().intValue(), milk.getId().intValue());
+        } finally {
+            releaseFirst.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private String latestToken() throws Exception {
+        String since = null;
+        boolean hasMore = true;
+        while (hasMore) {
+            MockHttpServletRequestBuilder request = MockMvcRequestBuilders.get("/api/sync").param("limit", "500");
+            if (since != null) {
+                request.param("since", since);
+            }
+            String content = mockMvc.perform(request)
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andReturn()
+                    .getResponse()
+                    .getContentAsString();
+            since = JsonPath.read(content, "$.token");
+            hasMore = JsonPath.read(content, "$.hasMore");
+        }
+        return since;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
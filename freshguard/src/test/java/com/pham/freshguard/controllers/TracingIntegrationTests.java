@@ -0,0 +1,141 @@
+package com.pham.freshguard.controllers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.services.ItemService;
+import com.pham.freshguard.services.RecipeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import zipkin2.reporter.brave.AsyncZipkinSpanHandler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Every request is sampled here, and spans are read back from the trace file once the
+ * reporter has flushed them. The setup commits its data, so it is cleaned up afterwards.
+ */
+@SpringBootTest(properties = {
+        "management.tracing.sampling.probability=1.0",
+        "freshguard.tracing.file=target/tracing-tests/traces.json"})
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class TracingIntegrationTests {
+    private static final String CONTROLLER_SPAN = "RecipeController.setRecipeIngredients";
+    private static final String SERVICE_SPAN = "RecipeServiceImpl.setRecipeIngredients";
+
+    private final RecipeService recipeService;
+    private final ItemService itemService;
+    private final MockMvc mockMvc;
+    private final AsyncZipkinSpanHandler spanHandler;
+    private final Path traceFile;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    public TracingIntegrationTests(MockMvc mockMvc, RecipeService recipeService, ItemService itemService,
+                                   AsyncZipkinSpanHandler spanHandler,
+                                   @Value("${freshguard.tracing.file}") Path traceFile) {
+        this.mockMvc = mockMvc;
+        this.recipeService = recipeService;
+        this.itemService = itemService;
+        this.spanHandler = spanHandler;
+        this.traceFile = traceFile;
+    }
+
+    @BeforeEach
+    @AfterEach
+    void cleanUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatSetIngredientsIsBrokenDownIntoSpansWithStatementCounts() throws Exception {
+        ItemEntity salt = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity pork = itemService.save(TestDataUtil.createTestItemEntityB());
+        RecipeEntity roast = recipeService.save(TestDataUtil.createTestRecipeEntityB());
+
+        int earlierLines = readLines().size();
+        mockMvc.perform(
+                MockMvcRequestBuilders.put("/api/recipes/" + roast.getId() + "/ingredients")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + salt.getId() + "," + pork.getId() + "]")
+        ).andExpect(MockMvcResultMatchers.status().isOk());
+        spanHandler.flush();
+
+        // Spans are written by the reporter thread, possibly in several batches, so the file is
+        // polled until the whole trace of this request is there.
+        Map<String, JsonNode> spans = await().atMost(Duration.ofSeconds(10)).until(
+                () -> requestTrace(earlierLines),
+                trace -> trace.containsKey(CONTROLLER_SPAN)
+                        && trace.containsKey(SERVICE_SPAN)
+                        && trace.containsKey("RecipeMapperImpl.mapTo")
+                        && trace.keySet().stream().anyMatch(name -> name.startsWith("RecipeRepository.")));
+        JsonNode controller = spans.get(CONTROLLER_SPAN);
+        JsonNode service = spans.get(SERVICE_SPAN);
+
+        assertThat(service.get("traceId")).isEqualTo(controller.get("traceId"));
+        assertThat(service.get("parentId")).isEqualTo(controller.get("id"));
+        assertThat(controller.get("tags").get("component").asText()).isEqualTo("controller");
+        long controllerStatements = controller.get("tags").get("sql.statements").asLong();
+        long serviceStatements = service.get("tags").get("sql.statements").asLong();
+        assertThat(serviceStatements).isPositive();
+        assertThat(controllerStatements).isGreaterThanOrEqualTo(serviceStatements);
+    }
+
+    /**
+     * The spans written after the first {@code skip} lines that belong to the trace of the
+     * controller span, by name.
+     */
+    private Map<String, JsonNode> requestTrace(int skip) throws Exception {
+        List<String> lines = readLines();
+        List<JsonNode> spans = new ArrayList<>();
+        for (String line : lines.subList(skip, lines.size())) {
+            objectMapper.readTree(line).forEach(spans::add);
+        }
+        return spans.stream()
+                .filter(span -> span.get("name").asText().equals(CONTROLLER_SPAN))
+                .findFirst()
+                .map(controller -> spans.stream()
+                        .filter(span -> span.get("traceId").equals(controller.get("traceId")))
+                        .collect(Collectors.toMap(span -> span.get("name").asText(), Function.identity(),
+                                (first, second) -> first)))
+                .orElse(Map.of());
+    }
+
+    // Only complete lines: the reporter may be halfway through writing the last one.
+    private List<String> readLines() throws Exception {
+        if (!Files.exists(traceFile)) {
+            return List.of();
+        }
+        String content = Files.readString(traceFile);
+        return List.of(content.substring(0, content.lastIndexOf('\n') + 1).split("\n", -1)).stream()
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.toList());
+    }
+}
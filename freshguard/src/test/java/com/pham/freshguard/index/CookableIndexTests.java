@@ -0,0 +1,112 @@
+package com.pham.freshguard.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CookableIndexTests {
+    private static final LocalDate TODAY = LocalDate.of(2025, 7, 16);
+
+    private final CookableIndex index = new CookableIndex();
+
+    @Test
+    public void testThatRecipesAreRankedByShareOfIngredientsInStock() {
+        index.putItem(1L, 1, TODAY.plusDays(10));
+        index.putItem(2L, 1, TODAY.plusDays(10));
+        index.putItem(3L, 0, TODAY.plusDays(10));
+        index.putRecipe(10L, List.of(1L, 3L));
+        index.putRecipe(11L, List.of(1L, 2L));
+        index.putRecipe(12L, List.of(1L, 2L, 3L));
+
+        assertThat(index.rank(TODAY, 10))
+                .extracting(CookableMatch::recipeId)
+                .containsExactly(11L, 12L, 10L);
+        assertThat(index.rank(TODAY, 10).get(1))
+                .isEqualTo(new CookableMatch(12L, 2, 3, TODAY.plusDays(10)));
+    }
+
+    @Test
+    public void testThatTiesBreakTowardSoonestExpiringIngredient() {
+        index.putItem(1L, 1, TODAY.plusDays(5));
+        index.putItem(2L, 1, TODAY.plusDays(1));
+        index.putItem(3L, 1, null);
+        index.putRecipe(10L, List.of(3L));
+        index.putRecipe(11L, List.of(1L));
+        index.putRecipe(12L, List.of(2L));
+
+        assertThat(index.rank(TODAY, 10))
+                .extracting(CookableMatch::recipeId)
+                .containsExactly(12L, 11L, 10L);
+    }
+
+    @Test
+    public void testThatExpiredAndEmptyItemsAreNotInStock() {
+        index.putItem(1L, 1, TODAY.minusDays(1));
+        index.putItem(2L, 0, TODAY.plusDays(1));
+        index.putItem(3L, 1, TODAY);
+        index.putRecipe(10L, List.of(1L, 2L));
+        index.putRecipe(11L, List.of(1L, 3L));
+
+        assertThat(index.rank(TODAY, 10))
+                .containsExactly(new CookableMatch(11L, 1, 2, TODAY));
+    }
+
+    @Test
+    public void testThatRankReturnsAtMostLimitRecipes() {
+        index.putItem(1L, 1, TODAY.plusDays(1));
+        for (long recipeId = 1; recipeId <= 20; recipeId++) {
+            index.putRecipe(recipeId, List.of(1L));
+        }
+
+        assertThat(index.rank(TODAY, 5))
+                .extracting(CookableMatch::recipeId)
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void testThatRemovedItemsAreDroppedFromRecipes() {
+        index.putItem(1L, 1, TODAY.plusDays(1));
+        index.putItem(2L, 0, TODAY.plusDays(1));
+        index.putRecipe(10L, List.of(1L, 2L));
+
+        index.removeItems(List.of(2L));
+        index.putItem(3L, 0, TODAY.plusDays(1));
+
+        assertThat(index.rank(TODAY, 10))
+                .containsExactly(new CookableMatch(10L, 1, 1, TODAY.plusDays(1)));
+    }
+
+    @Test
+    public void testThatRemovedItemsAreDroppedFromRecipesMovedByRemovals() {
+        index.putItem(1L, 1, TODAY.plusDays(1));
+        index.putItem(2L, 1, TODAY.plusDays(2));
+        index.putRecipe(10L, List.of(1L));
+        index.putRecipe(11L, List.of(2L));
+        index.putRecipe(12L, List.of(1L, 2L));
+        index.putRecipe(11L, List.of(1L));
+
+        // Recipe 12 takes the removed recipe's place before its item is deleted.
+        index.removeRecipes(List.of(10L));
+        index.removeItems(List.of(2L));
+
+        assertThat(index.rank(TODAY, 10)).containsExactly(
+                new CookableMatch(11L, 1, 1, TODAY.plusDays(1)),
+                new CookableMatch(12L, 1, 1, TODAY.plusDays(1)));
+    }
+
+    @Test
+    public void testThatRemovedRecipesAreNotRanked() {
+        index.putItem(1L, 1, TODAY.plusDays(1));
+        index.putRecipe(10L, List.of(1L));
+        index.putRecipe(11L, List.of(1L));
+
+        index.removeRecipes(List.of(10L));
+
+        assertThat(index.rank(TODAY, 10))
+                .extracting(CookableMatch::recipeId)
+                .containsExactly(11L);
+    }
+}
@@ -0,0 +1,57 @@
+package com.pham.freshguard.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IngredientIndexTests {
+    private final IngredientIndex index = new IngredientIndex();
+
+    @BeforeEach
+    void setUp() {
+        index.putRecipe(10L, List.of(1L, 2L));
+        index.putRecipe(11L, List.of(1L, 3L));
+        index.putRecipe(12L, List.of(2L, 3L));
+        index.putRecipe(13L, List.of());
+    }
+
+    @Test
+    public void testThatAllOfIntersectsRecipes() {
+        assertThat(index.find(List.of(1L, 2L), List.of(), List.of())).containsExactly(10L);
+        assertThat(index.find(List.of(1L, 4L), List.of(), List.of())).isEmpty();
+    }
+
+    @Test
+    public void testThatAnyOfUnitesRecipes() {
+        assertThat(index.find(List.of(), List.of(2L, 3L), List.of())).containsExactly(10L, 11L, 12L);
+        assertThat(index.find(List.of(1L), List.of(2L, 4L), List.of())).containsExactly(10L);
+    }
+
+    @Test
+    public void testThatNoneOfExcludesRecipes() {
+        assertThat(index.find(List.of(), List.of(), List.of(3L))).containsExactly(10L, 13L);
+        assertThat(index.find(List.of(), List.of(1L), List.of(2L))).containsExactly(11L);
+    }
+
+    @Test
+    public void testThatPutRecipeReplacesItsIngredients() {
+        index.putRecipe(10L, List.of(3L));
+
+        assertThat(index.find(List.of(1L), List.of(), List.of())).containsExactly(11L);
+        assertThat(index.find(List.of(3L), List.of(), List.of())).containsExactly(10L, 11L, 12L);
+    }
+
+    @Test
+    public void testThatRemovedRecipesAndItemsAreNotFound() {
+        index.removeRecipes(List.of(11L));
+        index.removeItems(List.of(2L));
+        index.putRecipe(14L, List.of(2L));
+
+        assertThat(index.find(List.of(1L), List.of(), List.of())).containsExactly(10L);
+        assertThat(index.find(List.of(2L), List.of(), List.of())).containsExactly(14L);
+        assertThat(index.find(List.of(), List.of(), List.of(3L))).containsExactly(10L, 13L, 14L);
+    }
+}
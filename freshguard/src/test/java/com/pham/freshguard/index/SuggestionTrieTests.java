@@ -0,0 +1,60 @@
+package com.pham.freshguard.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+public class SuggestionTrieTests {
+    private final SuggestionTrie trie = new SuggestionTrie();
+
+    @BeforeEach
+    void setUp() {
+        trie.add("Milk");
+        trie.add("Milk");
+        trie.add("milk");
+        trie.add("Mild cheddar");
+        trie.add("Mint");
+        trie.add("Mint");
+        trie.add("Salt");
+    }
+
+    @Test
+    public void testThatCompletionsAreOrderedByFrequency() {
+        assertThat(trie.complete("mi", 10, 0))
+                .extracting(Suggestion::term, Suggestion::count)
+                .containsExactly(
+                        tuple("Milk", 3),
+                        tuple("Mint", 2),
+                        tuple("Mild cheddar", 1));
+        assertThat(trie.complete("MIL", 1, 0)).extracting(Suggestion::term).containsExactly("Milk");
+    }
+
+    @Test
+    public void testThatPrefixesOneEditAwayMatchAfterExactOnes() {
+        assertThat(trie.complete("mlik", 10, 1)).extracting(Suggestion::term).containsExactly("Milk");
+        assertThat(trie.complete("slt", 10, 1)).extracting(Suggestion::term).containsExactly("Salt");
+        assertThat(trie.complete("mink", 10, 1)).extracting(Suggestion::term, Suggestion::distance)
+                .containsExactly(
+                        tuple("Milk", 1),
+                        tuple("Mint", 1));
+        assertThat(trie.complete("mint", 10, 1)).extracting(Suggestion::term, Suggestion::distance)
+                .startsWith(tuple("Mint", 0));
+        assertThat(trie.complete("mlik", 10, 0)).isEmpty();
+    }
+
+    @Test
+    public void testThatRemovedTermsAreNotSuggested() {
+        trie.remove("Mint");
+        trie.remove("Mint");
+        trie.remove("Milk");
+        trie.remove("Pepper");
+
+        assertThat(trie.complete("mi", 10, 0))
+                .extracting(Suggestion::term, Suggestion::count)
+                .containsExactly(
+                        tuple("Milk", 2),
+                        tuple("Mild cheddar", 1));
+    }
+}
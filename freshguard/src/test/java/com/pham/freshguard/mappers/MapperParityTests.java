@@ -0,0 +1,103 @@
+package com.pham.freshguard.mappers;
+
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.dto.ItemDto;
+import com.pham.freshguard.domain.dto.RecipeDto;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import com.pham.freshguard.mappers.impl.ItemMapperImpl;
+import com.pham.freshguard.mappers.impl.RecipeMapperImpl;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the hand-written mappers against the reflective ModelMapper behaviour they replaced.
+ */
+public class MapperParityTests {
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final ItemMapperImpl itemMapper = new ItemMapperImpl();
+    private final RecipeMapperImpl recipeMapper = new RecipeMapperImpl(itemMapper);
+
+    @Test
+    public void testThatItemMapToMatchesModelMapper() {
+        ItemEntity itemEntity = TestDataUtil.createTestItemEntityA();
+        itemEntity.setId(1L);
+
+        assertThat(itemMapper.mapTo(itemEntity)).isEqualTo(modelMapper.map(itemEntity, ItemDto.class));
+    }
+
+    @Test
+    public void testThatItemMapFromMatchesModelMapper() {
+        ItemDto itemDto = modelMapper.map(TestDataUtil.createTestItemEntityB(), ItemDto.class);
+        itemDto.setId(2L);
+
+        ItemEntity expected = modelMapper.map(itemDto, ItemEntity.class);
+        ItemEntity actual = itemMapper.mapFrom(itemDto);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getRecipes()).isEqualTo(expected.getRecipes());
+    }
+
+    @Test
+    public void testThatPartialItemMapFromLeavesMissingFieldsNull() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("UPDATED");
+
+        assertThat(itemMapper.mapFrom(itemDto)).isEqualTo(modelMapper.map(itemDto, ItemEntity.class));
+    }
+
+    @Test
+    public void testThatRecipeMapToMatchesModelMapper() {
+        RecipeEntity recipeEntity = recipeWithIngredients();
+
+        RecipeDto expected = modelMapper.map(recipeEntity, RecipeDto.class);
+        RecipeDto actual = recipeMapper.mapTo(recipeEntity);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getIngredients()).hasSize(2);
+    }
+
+    @Test
+    public void testThatRecipeWithoutIngredientsMapToMatchesModelMapper() {
+        RecipeEntity recipeEntity = TestDataUtil.createTestRecipeEntityB();
+        recipeEntity.setId(3L);
+
+        assertThat(recipeMapper.mapTo(recipeEntity)).isEqualTo(modelMapper.map(recipeEntity, RecipeDto.class));
+    }
+
+    @Test
+    public void testThatRecipeMapFromMatchesModelMapper() {
+        RecipeDto recipeDto = modelMapper.map(recipeWithIngredients(), RecipeDto.class);
+
+        assertThat(recipeMapper.mapFrom(recipeDto)).isEqualTo(modelMapper.map(recipeDto, RecipeEntity.class));
+    }
+
+    @Test
+    public void testThatPartialRecipeMapFromLeavesIngredientsNull() {
+        RecipeDto recipeDto = new RecipeDto();
+        recipeDto.setName("UPDATED");
+
+        RecipeEntity expected = modelMapper.map(recipeDto, RecipeEntity.class);
+        RecipeEntity actual = recipeMapper.mapFrom(recipeDto);
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual.getIngredients()).isNull();
+    }
+
+    private static RecipeEntity recipeWithIngredients() {
+        ItemEntity itemEntityA = TestDataUtil.createTestItemEntityA();
+        itemEntityA.setId(1L);
+        ItemEntity itemEntityB = TestDataUtil.createTestItemEntityB();
+        itemEntityB.setId(2L);
+        Set<ItemEntity> ingredients = new HashSet<>();
+        ingredients.add(itemEntityA);
+        ingredients.add(itemEntityB);
+
+        RecipeEntity recipeEntity = TestDataUtil.createTestRecipeEntityA();
+        recipeEntity.setId(3L);
+        recipeEntity.setIngredients(ingredients);
+        return recipeEntity;
+    }
+}
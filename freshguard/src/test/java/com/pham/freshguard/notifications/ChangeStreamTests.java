@@ -0,0 +1,215 @@
+package com.pham.freshguard.notifications;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeStreamTests {
+    private final ChangeStream stream = new ChangeStream("run1", 4, 3, Executors.newFixedThreadPool(2), Duration.ofMillis(100));
+
+    @AfterEach
+    void tearDown() {
+        stream.close();
+    }
+
+    @Test
+    public void testThatSubscribersResumeAfterLastEventId() throws Exception {
+        publishItems(3);
+        RecordingSink sink = new RecordingSink();
+        stream.subscribe("run1-1", sink);
+        stream.publish(ChangeNotification.Type.ITEM_DELETED, List.of(4L));
+
+        sink.awaitCount(3);
+        assertThat(sink.notifications).extracting(ChangeNotification::id).containsExactly("run1-2", "run1-3", "run1-4");
+        assertThat(sink.notifications.get(2).type()).isEqualTo(ChangeNotification.Type.ITEM_DELETED);
+    }
+
+    @Test
+    public void testThatUnbufferedPositionsReceiveReset() throws Exception {
+        publishItems(5);
+        RecordingSink tooOld = new RecordingSink();
+        RecordingSink fromBeforeRestart = new RecordingSink();
+        RecordingSink malformed = new RecordingSink();
+        stream.subscribe("run1-1", tooOld);
+        // The sequence is still buffered, but it was issued by another run.
+        stream.subscribe("run0-3", fromBeforeRestart);
+        stream.subscribe("3", malformed);
+
+        for (RecordingSink sink : List.of(tooOld, fromBeforeRestart, malformed)) {
+            sink.awaitCount(1);
+            assertThat(sink.notifications).extracting(ChangeNotification::type)
+                    .containsExactly(ChangeNotification.Type.RESET);
+        }
+        assertThat(fromBeforeRestart.notifications.get(0).id()).isEqualTo("run1-5");
+    }
+
+    @Test
+    public void testThatSlowSubscribersAreDroppedWithoutHoldingUpOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(ChangeNotification notification) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(notification);
+            }
+        };
+        RecordingSink fast = new RecordingSink();
+        stream.subscribe(null, slow);
+        stream.subscribe(null, fast);
+
+        for (long id = 1; id <= 8; id++) {
+            stream.publish(ChangeNotification.Type.ITEM_UPDATED, List.of(id));
+            fast.awaitCount((int) id);
+        }
+
+        assertThat(slow.closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+        assertThat(fast.notifications).hasSize(8);
+        release.countDown();
+    }
+
+    @Test
+    public void testThatStalledWritesDoNotStarveOtherSubscribers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<RecordingSink> stalled = List.of(new StalledSink(release), new StalledSink(release));
+        RecordingSink fast = new RecordingSink();
+        stalled.forEach(sink -> stream.subscribe(null, sink));
+        stream.subscribe(null, fast);
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+        watchdog.scheduleAtFixedRate(stream::evictStalled, 10, 10, TimeUnit.MILLISECONDS);
+        try {
+            // Both pool threads block on the stalled sinks, whose buffers never fill up.
+            stream.publish(ChangeNotification.Type.ITEM_UPDATED, List.of(1L));
+            fast.awaitCount(1);
+            for (RecordingSink sink : stalled) {
+                assertThat(sink.closed.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            stream.publish(ChangeNotification.Type.ITEM_UPDATED, List.of(2L));
+            fast.awaitCount(2);
+            assertThat(stream.subscriberCount()).isEqualTo(1);
+        } finally {
+            watchdog.shutdownNow();
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testThatTenThousandSubscribersReceiveEveryNotification() throws Exception {
+        ChangeStream wide = new ChangeStream("run1", 64, 64, Executors.newFixedThreadPool(4), Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        List<RecordingSink> healthy = new ArrayList<>();
+        List<RecordingSink> stalled = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            RecordingSink sink = i % 1_000 == 0 ? new StalledSink(release) : new RecordingSink();
+            (sink instanceof StalledSink ? stalled : healthy).add(sink);
+            wide.subscribe(null, sink);
+        }
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor();
+        watchdog.scheduleAtFixedRate(wide::evictStalled, 10, 10, TimeUnit.MILLISECONDS);
+        try {
+            for (long id = 1; id <= 20; id++) {
+                wide.publish(ChangeNotification.Type.ITEM_UPDATED, List.of(id));
+            }
+
+            for (RecordingSink sink : healthy) {
+                sink.awaitCount(20);
+            }
+            for (RecordingSink sink : stalled) {
+                assertThat(sink.closed.await(5, TimeUnit.SECONDS)).isTrue();
+            }
+            assertThat(wide.subscriberCount()).isEqualTo(healthy.size());
+        } finally {
+            watchdog.shutdownNow();
+            release.countDown();
+            wide.close();
+        }
+    }
+
+    @Test
+    public void testThatSubscribersReceiveHeartbeats() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        stream.subscribe(null, sink);
+
+        stream.heartbeat();
+        stream.heartbeat();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.heartbeats.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(sink.heartbeats.get()).isPositive();
+        assertThat(sink.notifications).isEmpty();
+    }
+
+    private void publishItems(int count) {
+        for (long id = 1; id <= count; id++) {
+            stream.publish(ChangeNotification.Type.ITEM_CREATED, List.of(id));
+        }
+    }
+
+    /**
+     * A client that stopped reading: every write blocks until released.
+     */
+    private static class StalledSink extends RecordingSink {
+        private final CountDownLatch release;
+
+        StalledSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(ChangeNotification notification) throws IOException {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            super.send(notification);
+        }
+    }
+
+    private static class RecordingSink implements NotificationSink {
+        final List<ChangeNotification> notifications = new CopyOnWriteArrayList<>();
+        final CountDownLatch closed = new CountDownLatch(1);
+        final AtomicInteger heartbeats = new AtomicInteger();
+
+        @Override
+        public void send(ChangeNotification notification) throws IOException {
+            notifications.add(notification);
+        }
+
+        @Override
+        public void heartbeat() {
+            heartbeats.incrementAndGet();
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        void awaitCount(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (notifications.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertThat(notifications).hasSizeGreaterThanOrEqualTo(count);
+        }
+    }
+}
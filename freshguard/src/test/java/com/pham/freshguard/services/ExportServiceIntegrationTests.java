@@ -0,0 +1,199 @@
+package com.pham.freshguard.services;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pham.freshguard.TestDataUtil;
+import com.pham.freshguard.domain.entities.ItemEntity;
+import com.pham.freshguard.domain.entities.RecipeEntity;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.Rollback;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+@Transactional
+@Rollback
+public class ExportServiceIntegrationTests {
+    private static final int SYNTHETIC_ITEMS = 1_000_000;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final long SYNTHETIC_ID_OFFSET = 1_000_000_000L;
+    private static final long MAX_HEAP_GROWTH = 128L << 20;
+
+    private final ExportService underTest;
+    private final ItemService itemService;
+    private final RecipeService recipeService;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public ExportServiceIntegrationTests(
+            ExportService underTest,
+            ItemService itemService,
+            RecipeService recipeService,
+            JdbcTemplate jdbcTemplate,
+            EntityManager entityManager,
+            ObjectMapper objectMapper) {
+        this.underTest = underTest;
+        this.itemService = itemService;
+        this.recipeService = recipeService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @BeforeEach
+    void setUp() {
+        recipeService.deleteAll();
+        itemService.deleteAll();
+    }
+
+    @Test
+    public void testThatExportItemsWritesOneJsonLinePerItem() throws Exception {
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        itemService.save(TestDataUtil.createTestItemEntityB());
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = underTest.exportItems(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines).allMatch(line -> line.startsWith("{") && line.endsWith("}"));
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(savedItemA.getId());
+        assertThat(first.get("name").asText()).isEqualTo("Salt");
+        assertThat(first.get("expirationDate").asText()).isEqualTo("2026-01-16");
+    }
+
+    @Test
+    public void testThatExportRecipesIncludesIngredients() throws Exception {
+        RecipeEntity savedRecipe = recipeService.save(TestDataUtil.createTestRecipeEntityA());
+        recipeService.save(TestDataUtil.createTestRecipeEntityB());
+        ItemEntity savedItemA = itemService.save(TestDataUtil.createTestItemEntityA());
+        ItemEntity savedItemB = itemService.save(TestDataUtil.createTestItemEntityB());
+        recipeService.addIngredientToRecipe(savedRecipe.getId(), savedItemA.getId());
+        recipeService.addIngredientToRecipe(savedRecipe.getId(), savedItemB.getId());
+        entityManager.flush();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = underTest.exportRecipes(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(exported).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertThat(first.get("id").asLong()).isEqualTo(savedRecipe.getId());
+        assertThat(first.get("ingredients")).hasSize(2);
+        assertThat(objectMapper.readTree(lines[1]).get("ingredients")).isEmpty();
+    }
+
+    // Inserts a million rows, so it only runs when tests tagged "slow" are selected.
+    @Test
+    @Tag("slow")
+    public void testThatExportStreamsOneMillionItemsInBoundedHeap() throws Exception {
+        insertSyntheticItems();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+        long started = System.nanoTime();
+        long exported = underTest.exportItems(out);
+        double seconds = (System.nanoTime() - started - out.samplingNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+        System.out.printf("%nExported %d items in %.2f s: %.0f rows/s, %.1f MB/s%n",
+                exported, seconds, exported / seconds, out.bytes / seconds / (1 << 20));
+
+        assertThat(exported).isEqualTo(SYNTHETIC_ITEMS);
+        assertThat(out.lines).isEqualTo(SYNTHETIC_ITEMS);
+        // Holding the exported rows would take over 250 MB; what remains is the driver's own buffering.
+        assertThat(out.peakHeap - heapBefore).isLessThan(MAX_HEAP_GROWTH);
+    }
+
+    private void insertSyntheticItems() {
+        LocalDate today = LocalDate.now();
+        for (int offset = 0; offset < SYNTHETIC_ITEMS; offset += INSERT_BATCH_SIZE) {
+            int batchStart = offset;
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO items (id, name, category, expiration_date, purchase_date, quantity, location) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            int n = batchStart + i;
+                            ps.setLong(1, SYNTHETIC_ID_OFFSET + n);
+                            ps.setString(2, "Item " + n);
+                            ps.setString(3, "Category " + (n % 20));
+                            ps.setDate(4, Date.valueOf(today.plusDays(n % 365)));
+                            ps.setDate(5, Date.valueOf(today));
+                            ps.setInt(6, n % 10);
+                            ps.setString(7, n % 2 == 0 ? "Fridge" : "Pantry");
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return INSERT_BATCH_SIZE;
+                        }
+                    });
+        }
+    }
+
+    private static class HeapSamplingOutputStream extends OutputStream {
+        private final Runtime runtime = Runtime.getRuntime();
+        private long bytes;
+        private long lines;
+        private long peakHeap;
+        private long samplingNanos;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                countLine();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    countLine();
+                }
+            }
+        }
+
+        // Samples the live heap, after a collection, every 100,000 lines. The time spent doing
+        // so is kept apart so it does not count against the export's throughput.
+        private void countLine() {
+            if (++lines % 100_000 == 0) {
+                long started = System.nanoTime();
+                System.gc();
+                peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+                samplingNanos += System.nanoTime() - started;
+            }
+        }
+    }
+}
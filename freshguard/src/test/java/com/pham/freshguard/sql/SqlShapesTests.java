@@ -0,0 +1,33 @@
+package com.pham.freshguard.sql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlShapesTests {
+    @Test
+    public void testThatLiteralsAndInListsAreReplaced() {
+        assertThat(SqlShapes.normalize(
+                "select i1_0.id from items i1_0\n   where i1_0.name = 'O''Brien''s' and i1_0.quantity > 12.5 " +
+                        "and i1_0.id in (?, ?,?) and i1_0.location = $1"))
+                .isEqualTo("select i1_0.id from items i1_0 where i1_0.name = ? and i1_0.quantity > ? " +
+                        "and i1_0.id in (?) and i1_0.location = $1");
+    }
+
+    @Test
+    public void testThatStatementsDifferingOnlyInValuesShareAShape() {
+        assertThat(SqlShapes.normalize("DELETE FROM recipe_ingredients WHERE recipe_id = 7 AND item_id IN (1, 2)"))
+                .isEqualTo(SqlShapes.normalize("DELETE FROM recipe_ingredients WHERE recipe_id = 42 AND item_id IN (3)"));
+    }
+
+    @Test
+    public void testThatPlansKeepCostsButLoseComparedValues() {
+        assertThat(SqlShapes.redactPlan(
+                "Index Scan using items_pkey on items  (cost=0.15..8.17 rows=1 width=44)\n" +
+                        "  Index Cond: (id = 5)\n" +
+                        "  Filter: ((name)::text = 'Salt'::text)"))
+                .isEqualTo("Index Scan using items_pkey on items  (cost=0.15..8.17 rows=1 width=44)\n" +
+                        "  Index Cond: (id = ?)\n" +
+                        "  Filter: ((name)::text = ?::text)");
+    }
+}
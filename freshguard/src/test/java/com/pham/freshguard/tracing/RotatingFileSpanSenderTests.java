@@ -0,0 +1,68 @@
+package com.pham.freshguard.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RotatingFileSpanSenderTests {
+    private static final byte[] SPAN = "{\"traceId\":\"0000000000000001\",\"id\":\"0000000000000001\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testThatEachNonEmptyBatchIsOneJsonArrayLine() throws Exception {
+        Path file = dir.resolve("traces.json");
+        try (RotatingFileSpanSender sender = new RotatingFileSpanSender(file, 1024 * 1024, 3)) {
+            sender.send(List.of(SPAN, SPAN));
+            sender.send(List.of());
+            sender.send(List.of(SPAN));
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        JsonNode first = new ObjectMapper().readTree(lines.get(0));
+        assertThat(first.isArray()).isTrue();
+        assertThat(first.size()).isEqualTo(2);
+        assertThat(first.get(0).get("traceId").asText()).isEqualTo("0000000000000001");
+    }
+
+    @Test
+    public void testThatFilesRotateAndOnlyMaxFilesAreKept() throws Exception {
+        Path file = dir.resolve("traces.json");
+        try (RotatingFileSpanSender sender = new RotatingFileSpanSender(file, SPAN.length + 3, 3)) {
+            for (int i = 0; i < 5; i++) {
+                sender.send(List.of(SPAN));
+            }
+        }
+
+        try (var files = Files.list(dir)) {
+            assertThat(files.map(path -> path.getFileName().toString()))
+                    .containsExactlyInAnyOrder("traces.json", "traces.json.1", "traces.json.2");
+        }
+        assertThat(Files.readAllLines(file)).hasSize(1);
+    }
+
+    @Test
+    public void testThatAnExistingFileIsAppendedToAndRotatedWhenFull() throws Exception {
+        Path file = dir.resolve("traces.json");
+        try (RotatingFileSpanSender sender = new RotatingFileSpanSender(file, SPAN.length + 3, 2)) {
+            sender.send(List.of(SPAN));
+        }
+        try (RotatingFileSpanSender sender = new RotatingFileSpanSender(file, SPAN.length + 3, 2)) {
+            sender.send(List.of(SPAN));
+        }
+
+        assertThat(Files.readAllLines(file)).hasSize(1);
+        assertThat(Files.readAllLines(dir.resolve("traces.json.1"))).hasSize(1);
+    }
+}